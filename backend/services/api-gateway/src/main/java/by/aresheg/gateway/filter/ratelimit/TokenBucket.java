@@ -0,0 +1,46 @@
+package by.aresheg.gateway.filter.ratelimit;
+
+/**
+ * Token bucket refilled lazily on access. Each bucket guards its own state, so contention
+ * is limited to requests coming from the same client.
+ */
+class TokenBucket {
+
+    private final double capacity;
+
+    private final double tokensPerNano;
+
+    private double tokens;
+
+    private long lastRefillNanos;
+
+    private volatile long lastAccessNanos;
+
+    TokenBucket(int capacity, double tokensPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = tokensPerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.lastRefillNanos = nowNanos;
+        this.lastAccessNanos = nowNanos;
+    }
+
+    /**
+     * @return 0 if a token was taken, otherwise the number of nanoseconds until the next token is available
+     */
+    synchronized long tryConsume(long nowNanos) {
+        lastAccessNanos = nowNanos;
+        tokens = Math.min(capacity, tokens + (nowNanos - lastRefillNanos) * tokensPerNano);
+        lastRefillNanos = nowNanos;
+
+        if (tokens >= 1d) {
+            tokens -= 1d;
+            return 0L;
+        }
+        return (long) Math.ceil((1d - tokens) / tokensPerNano);
+    }
+
+    long lastAccessNanos() {
+        return lastAccessNanos;
+    }
+
+}
@@ -0,0 +1,92 @@
+package by.aresheg.gateway.filter.ratelimit;
+
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.factory.AbstractGatewayFilterFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-process per client IP rate limiter. Configured per route as {@code TokenBucketRateLimiter},
+ * every route gets its own set of buckets. Rejected requests get 429 with a Retry-After header.
+ */
+@Component
+@Slf4j
+public class TokenBucketRateLimiterGatewayFilterFactory
+        extends AbstractGatewayFilterFactory<TokenBucketRateLimiterGatewayFilterFactory.Config> {
+
+    private static final String UNKNOWN_CLIENT = "unknown";
+
+    public TokenBucketRateLimiterGatewayFilterFactory() {
+        super(Config.class);
+    }
+
+    @Override
+    public GatewayFilter apply(Config config) {
+        Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+        AtomicLong lastSweepNanos = new AtomicLong(System.nanoTime());
+        long idleTimeoutNanos = config.getIdleTimeout().toNanos();
+
+        return (exchange, chain) -> {
+            long now = System.nanoTime();
+            sweepIdleBuckets(buckets, lastSweepNanos, idleTimeoutNanos, now);
+
+            TokenBucket bucket = buckets.computeIfAbsent(
+                    resolveClient(exchange),
+                    client -> new TokenBucket(config.getBurstCapacity(), config.getReplenishRate(), now)
+            );
+
+            long waitNanos = bucket.tryConsume(now);
+            if (waitNanos == 0L) {
+                return chain.filter(exchange);
+            }
+
+            log.debug("Rate limit exceeded for {} on {}", resolveClient(exchange), exchange.getRequest().getPath());
+            exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+            exchange.getResponse().getHeaders().set(
+                    HttpHeaders.RETRY_AFTER,
+                    String.valueOf(Math.max(1L, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L)))
+            );
+            return exchange.getResponse().setComplete();
+        };
+    }
+
+    // Runs at most once per idle timeout and only on the thread that wins the CAS
+    private void sweepIdleBuckets(Map<String, TokenBucket> buckets, AtomicLong lastSweepNanos, long idleTimeoutNanos, long now) {
+        long lastSweep = lastSweepNanos.get();
+        if (now - lastSweep < idleTimeoutNanos || !lastSweepNanos.compareAndSet(lastSweep, now)) {
+            return;
+        }
+        buckets.values().removeIf(bucket -> now - bucket.lastAccessNanos() > idleTimeoutNanos);
+    }
+
+    private String resolveClient(ServerWebExchange exchange) {
+        InetSocketAddress remoteAddress = exchange.getRequest().getRemoteAddress();
+        if (remoteAddress == null || remoteAddress.getAddress() == null) {
+            return UNKNOWN_CLIENT;
+        }
+        return remoteAddress.getAddress().getHostAddress();
+    }
+
+    @Data
+    public static class Config {
+
+        private int burstCapacity = 10;
+
+        private double replenishRate = 1;
+
+        private Duration idleTimeout = Duration.ofMinutes(5);
+
+    }
+
+}
@@ -0,0 +1,59 @@
+package by.aresheg.gateway.security;
+
+import by.aresheg.gateway.security.props.IdentityProperties;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+
+/**
+ * Signs the identity forwarded to downstream services. The payload layout must stay in sync
+ * with the verifying side in user-service.
+ */
+@Component
+public class IdentitySigner {
+
+    private static final String MISSING_SECRET_MESSAGE = "security.identity.secret must be set when signed identity headers are enabled";
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final ThreadLocal<Mac> mac;
+
+    // Fails the startup when propagation is on but the secret is missing
+    public IdentitySigner(IdentityProperties identityProperties) {
+        String secret = identityProperties.getSecret();
+        boolean configured = secret != null && !secret.isBlank();
+        if (identityProperties.isEnabled() && !configured) {
+            throw new IllegalStateException(MISSING_SECRET_MESSAGE);
+        }
+
+        this.mac = configured ? macFor(secret) : null;
+    }
+
+    public String sign(String userId, String email, String roles, long timestamp) {
+        if (mac == null) {
+            throw new IllegalStateException(MISSING_SECRET_MESSAGE);
+        }
+
+        String payload = userId + '\n' + email + '\n' + roles + '\n' + timestamp;
+        byte[] signature = mac.get().doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(signature);
+    }
+
+    private static ThreadLocal<Mac> macFor(String secret) {
+        SecretKeySpec key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        return ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(ALGORITHM);
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException ex) {
+                throw new IllegalStateException("Unable to initialize identity signer", ex);
+            }
+        });
+    }
+
+}
@@ -0,0 +1,92 @@
+package by.aresheg.gateway.security.filter;
+
+import by.aresheg.gateway.security.IdentitySigner;
+import by.aresheg.gateway.security.props.IdentityProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Forwards the identity of an already verified JWT as signed headers, so downstream services
+ * do not have to verify and parse the same token again. Client supplied identity headers are always dropped.
+ */
+@Component
+@RequiredArgsConstructor
+public class IdentityPropagationFilter implements GlobalFilter, Ordered {
+
+    public static final String USER_ID_HEADER = "X-Auth-User-Id";
+
+    public static final String USER_EMAIL_HEADER = "X-Auth-User-Email";
+
+    public static final String USER_ROLES_HEADER = "X-Auth-User-Roles";
+
+    public static final String TIMESTAMP_HEADER = "X-Auth-Timestamp";
+
+    public static final String SIGNATURE_HEADER = "X-Auth-Signature";
+
+    private static final List<String> IDENTITY_HEADERS = List.of(
+            USER_ID_HEADER, USER_EMAIL_HEADER, USER_ROLES_HEADER, TIMESTAMP_HEADER, SIGNATURE_HEADER
+    );
+
+    private final IdentityProperties identityProperties;
+
+    private final IdentitySigner identitySigner;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        return ReactiveSecurityContextHolder.getContext()
+                .map(SecurityContext::getAuthentication)
+                .filter(authentication -> identityProperties.isEnabled())
+                .filter(JwtAuthenticationToken.class::isInstance)
+                .map(authentication -> withIdentity(exchange, ((JwtAuthenticationToken) authentication).getToken()))
+                .switchIfEmpty(Mono.fromSupplier(() -> withIdentity(exchange, null)))
+                .flatMap(chain::filter);
+    }
+
+    private ServerWebExchange withIdentity(ServerWebExchange exchange, Jwt jwt) {
+        return exchange.mutate()
+                .request(request -> request.headers(headers -> {
+                    IDENTITY_HEADERS.forEach(headers::remove);
+                    if (jwt != null) {
+                        addIdentityHeaders(headers, jwt);
+                    }
+                }))
+                .build();
+    }
+
+    private void addIdentityHeaders(HttpHeaders headers, Jwt jwt) {
+        Object userId = jwt.getClaim("userId");
+        List<String> roleList = jwt.getClaimAsStringList("roles");
+        if (userId == null || roleList == null) {
+            return;
+        }
+
+        String id = String.valueOf(userId);
+        String email = jwt.getSubject();
+        String roles = String.join(",", roleList);
+        long timestamp = System.currentTimeMillis();
+
+        headers.set(USER_ID_HEADER, id);
+        headers.set(USER_EMAIL_HEADER, email);
+        headers.set(USER_ROLES_HEADER, roles);
+        headers.set(TIMESTAMP_HEADER, String.valueOf(timestamp));
+        headers.set(SIGNATURE_HEADER, identitySigner.sign(id, email, roles, timestamp));
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+}
@@ -0,0 +1,17 @@
+package by.aresheg.gateway.security.props;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@Data
+@ConfigurationProperties(prefix = "security.identity")
+public class IdentityProperties {
+
+    // Switched on by the config-server profile together with the secret
+    private boolean enabled;
+
+    private String secret;
+
+}
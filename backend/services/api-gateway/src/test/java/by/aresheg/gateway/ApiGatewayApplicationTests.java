@@ -3,7 +3,13 @@ package by.aresheg.gateway;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+// Secrets normally come from the config-server profile
+@SpringBootTest(properties = {
+		"spring.cloud.config.enabled=false",
+		"security.jwt.secret=YXBpLWdhdGV3YXktY29udGV4dC10ZXN0LXNpZ25pbmcta2V5",
+		"security.identity.enabled=true",
+		"security.identity.secret=context-test-identity-secret"
+})
 class ApiGatewayApplicationTests {
 
 	@Test
@@ -0,0 +1,67 @@
+package by.aresheg.gateway.filter.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TokenBucketRateLimiterGatewayFilterFactoryTest {
+
+    private final AtomicInteger forwarded = new AtomicInteger();
+
+    private GatewayFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        TokenBucketRateLimiterGatewayFilterFactory.Config config = new TokenBucketRateLimiterGatewayFilterFactory.Config();
+        config.setBurstCapacity(2);
+        config.setReplenishRate(0.1);
+        filter = new TokenBucketRateLimiterGatewayFilterFactory().apply(config);
+    }
+
+    @Test
+    void requestsAboveBurstGet429WithRetryAfter() {
+        assertNull(send("10.0.0.1").getResponse().getStatusCode());
+        assertNull(send("10.0.0.1").getResponse().getStatusCode());
+
+        MockServerWebExchange rejected = send("10.0.0.1");
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, rejected.getResponse().getStatusCode());
+        // A token every 10 seconds, the wait is rounded up to whole seconds
+        long retryAfter = Long.parseLong(rejected.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(10, retryAfter);
+        assertEquals(2, forwarded.get());
+    }
+
+    @Test
+    void clientsHaveSeparateBuckets() {
+        send("10.0.0.1");
+        send("10.0.0.1");
+
+        MockServerWebExchange other = send("10.0.0.2");
+
+        assertNull(other.getResponse().getStatusCode());
+        assertEquals(3, forwarded.get());
+    }
+
+    private MockServerWebExchange send(String ip) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/api/v1/auth/login")
+                .remoteAddress(new InetSocketAddress(ip, 40000)));
+        filter.filter(exchange, forwardedExchange -> {
+            forwarded.incrementAndGet();
+            return Mono.empty();
+        }).block();
+        return exchange;
+    }
+
+}
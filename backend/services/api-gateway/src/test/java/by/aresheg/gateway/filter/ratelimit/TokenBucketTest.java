@@ -0,0 +1,50 @@
+package by.aresheg.gateway.filter.ratelimit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void burstIsServedThenCallerWaitsForNextToken() {
+        TokenBucket bucket = new TokenBucket(3, 2, 0);
+
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(0));
+        assertEquals(0, bucket.tryConsume(0));
+
+        // Two tokens per second: the next one is half a second away
+        assertEquals(SECOND / 2, bucket.tryConsume(0));
+        assertEquals(SECOND / 4, bucket.tryConsume(SECOND / 4));
+    }
+
+    @Test
+    void refillsOverTimeButNotAboveCapacity() {
+        TokenBucket bucket = new TokenBucket(2, 1, 0);
+        bucket.tryConsume(0);
+        bucket.tryConsume(0);
+
+        assertEquals(0, bucket.tryConsume(SECOND));
+        assertEquals(SECOND, bucket.tryConsume(SECOND));
+
+        long muchLater = 100 * SECOND;
+        assertEquals(0, bucket.tryConsume(muchLater));
+        assertEquals(0, bucket.tryConsume(muchLater));
+        assertEquals(SECOND, bucket.tryConsume(muchLater));
+    }
+
+    @Test
+    void tracksLastAccess() {
+        TokenBucket bucket = new TokenBucket(1, 1, 0);
+
+        bucket.tryConsume(5 * SECOND);
+
+        assertEquals(5 * SECOND, bucket.lastAccessNanos());
+    }
+
+}
@@ -0,0 +1,39 @@
+package by.aresheg.gateway.security;
+
+import by.aresheg.gateway.security.props.IdentityProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IdentitySignerTest {
+
+    @Test
+    void signsPayloadWithSharedSecret() {
+        IdentityProperties identityProperties = new IdentityProperties();
+        identityProperties.setSecret("test-secret");
+
+        String signature = new IdentitySigner(identityProperties).sign("42", "user@example.com", "USER,ADMIN", 1_700_000_000_000L);
+
+        // The same vector is verified by user-service's IdentitySignerTest
+        assertEquals("xQ9cz37qrjGA-1wlDJgbCLq5Tjdm9_oCT3Vpj0132og", signature);
+    }
+
+    @Test
+    void missingSecretFailsAtStartup() {
+        IdentityProperties identityProperties = new IdentityProperties();
+        identityProperties.setEnabled(true);
+
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> new IdentitySigner(identityProperties));
+        assertEquals("security.identity.secret must be set when signed identity headers are enabled", ex.getMessage());
+    }
+
+    @Test
+    void missingSecretIsAllowedWhenPropagationIsDisabled() {
+        IdentityProperties identityProperties = new IdentityProperties();
+
+        assertDoesNotThrow(() -> new IdentitySigner(identityProperties));
+    }
+
+}
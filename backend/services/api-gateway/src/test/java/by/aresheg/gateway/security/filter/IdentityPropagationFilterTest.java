@@ -0,0 +1,91 @@
+package by.aresheg.gateway.security.filter;
+
+import by.aresheg.gateway.security.IdentitySigner;
+import by.aresheg.gateway.security.props.IdentityProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static by.aresheg.gateway.security.filter.IdentityPropagationFilter.SIGNATURE_HEADER;
+import static by.aresheg.gateway.security.filter.IdentityPropagationFilter.TIMESTAMP_HEADER;
+import static by.aresheg.gateway.security.filter.IdentityPropagationFilter.USER_EMAIL_HEADER;
+import static by.aresheg.gateway.security.filter.IdentityPropagationFilter.USER_ID_HEADER;
+import static by.aresheg.gateway.security.filter.IdentityPropagationFilter.USER_ROLES_HEADER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class IdentityPropagationFilterTest {
+
+    private final AtomicReference<HttpHeaders> forwarded = new AtomicReference<>();
+
+    private IdentitySigner identitySigner;
+
+    private IdentityPropagationFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        IdentityProperties identityProperties = new IdentityProperties();
+        identityProperties.setEnabled(true);
+        identityProperties.setSecret("test-secret");
+        identitySigner = new IdentitySigner(identityProperties);
+        filter = new IdentityPropagationFilter(identityProperties, identitySigner);
+    }
+
+    @Test
+    void anonymousRequestLosesSpoofedIdentityHeaders() {
+        filter.filter(spoofedExchange(), exchange -> {
+            forwarded.set(exchange.getRequest().getHeaders());
+            return Mono.empty();
+        }).block();
+
+        HttpHeaders headers = forwarded.get();
+        assertNull(headers.getFirst(USER_ID_HEADER));
+        assertNull(headers.getFirst(USER_EMAIL_HEADER));
+        assertNull(headers.getFirst(USER_ROLES_HEADER));
+        assertNull(headers.getFirst(TIMESTAMP_HEADER));
+        assertNull(headers.getFirst(SIGNATURE_HEADER));
+    }
+
+    @Test
+    void authenticatedRequestForwardsSignedIdentityInsteadOfSpoofedOne() {
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "HS256")
+                .subject("user@example.com")
+                .claim("userId", 42L)
+                .claim("roles", List.of("USER", "ADMIN"))
+                .build();
+
+        filter.filter(spoofedExchange(), exchange -> {
+                    forwarded.set(exchange.getRequest().getHeaders());
+                    return Mono.empty();
+                })
+                .contextWrite(ReactiveSecurityContextHolder.withAuthentication(new JwtAuthenticationToken(jwt)))
+                .block();
+
+        HttpHeaders headers = forwarded.get();
+        assertEquals("42", headers.getFirst(USER_ID_HEADER));
+        assertEquals("user@example.com", headers.getFirst(USER_EMAIL_HEADER));
+        assertEquals("USER,ADMIN", headers.getFirst(USER_ROLES_HEADER));
+        long timestamp = Long.parseLong(headers.getFirst(TIMESTAMP_HEADER));
+        assertEquals(identitySigner.sign("42", "user@example.com", "USER,ADMIN", timestamp), headers.getFirst(SIGNATURE_HEADER));
+    }
+
+    private MockServerWebExchange spoofedExchange() {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/v1/users/1")
+                .header(USER_ID_HEADER, "1")
+                .header(USER_EMAIL_HEADER, "admin@example.com")
+                .header(USER_ROLES_HEADER, "ADMIN")
+                .header(TIMESTAMP_HEADER, "0")
+                .header(SIGNATURE_HEADER, "forged"));
+    }
+
+}
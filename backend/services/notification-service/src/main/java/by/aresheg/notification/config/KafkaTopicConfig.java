@@ -0,0 +1,30 @@
+package by.aresheg.notification.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class KafkaTopicConfig {
+
+    // Listener concurrency is bound to the same partition count, so every consumer thread owns a partition
+    @Bean
+    public NewTopic emailNotificationsTopic(@Value("${app.kafka.topic}") String topic,
+                                            @Value("${app.kafka.partitions}") int partitions) {
+        return TopicBuilder.name(topic)
+                .partitions(partitions)
+                .replicas(1)
+                .build();
+    }
+
+    @Bean
+    public NewTopic emailNotificationsDeadLetterTopic(@Value("${app.kafka.dead-letter-topic}") String topic) {
+        return TopicBuilder.name(topic)
+                .partitions(1)
+                .replicas(1)
+                .build();
+    }
+
+}
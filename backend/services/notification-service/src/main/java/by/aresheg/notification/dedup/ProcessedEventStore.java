@@ -0,0 +1,133 @@
+package by.aresheg.notification.dedup;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the keys of already handled notification events, so redelivered records are dropped
+ * before anything is rendered or sent. Keeps the most recent keys in memory and, when a file is configured,
+ * appends every key to it so the window survives restarts. The file is compacted once it grows to twice the window.
+ */
+@Component
+@Slf4j
+public class ProcessedEventStore implements DisposableBean {
+
+    private final Map<String, Boolean> processed;
+
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    private final int windowSize;
+
+    private final Path file;
+
+    private final Counter duplicatesCounter;
+
+    private BufferedWriter writer;
+
+    private int fileEntries;
+
+    public ProcessedEventStore(@Value("${app.notification.dedup.window-size:100000}") int windowSize,
+                               @Value("${app.notification.dedup.file:}") String file,
+                               MeterRegistry meterRegistry) {
+        this.windowSize = windowSize;
+        this.processed = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > windowSize;
+            }
+        };
+        this.file = file.isBlank() ? null : Path.of(file);
+        this.duplicatesCounter = Counter.builder("notification.duplicates.suppressed").register(meterRegistry);
+
+        if (this.file != null) {
+            load();
+        }
+    }
+
+    /**
+     * @return false if the key was already processed or is being processed right now
+     */
+    public boolean tryAcquire(String key) {
+        synchronized (this) {
+            if (!processed.containsKey(key) && inFlight.add(key)) {
+                return true;
+            }
+        }
+        duplicatesCounter.increment();
+        return false;
+    }
+
+    public synchronized void markProcessed(String key) {
+        inFlight.remove(key);
+        processed.put(key, Boolean.TRUE);
+        if (writer != null) {
+            append(key);
+        }
+    }
+
+    public void release(String key) {
+        inFlight.remove(key);
+    }
+
+    private void load() {
+        try {
+            if (Files.exists(file)) {
+                List<String> keys = Files.readAllLines(file, StandardCharsets.UTF_8);
+                keys.forEach(key -> processed.put(key, Boolean.TRUE));
+                fileEntries = keys.size();
+                log.info("Loaded {} processed event keys from {}", processed.size(), file);
+            }
+            writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to open processed events file " + file, ex);
+        }
+    }
+
+    private void append(String key) {
+        try {
+            writer.write(key);
+            writer.newLine();
+            writer.flush();
+            if (++fileEntries > windowSize * 2) {
+                compact();
+            }
+        } catch (IOException ex) {
+            log.warn("Failed to persist processed event key: {}", ex.getMessage());
+        }
+    }
+
+    private void compact() throws IOException {
+        Path compacted = file.resolveSibling(file.getFileName() + ".tmp");
+        Files.write(compacted, processed.keySet(), StandardCharsets.UTF_8);
+        writer.close();
+        Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        fileEntries = processed.size();
+    }
+
+    @Override
+    public synchronized void destroy() throws IOException {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+}
@@ -1,24 +1,112 @@
 package by.aresheg.notification.kafka;
 
+import by.aresheg.notification.dedup.ProcessedEventStore;
 import by.aresheg.notification.dto.UserRegisteredEvent;
+import by.aresheg.notification.retry.EmailRetryScheduler;
 import by.aresheg.notification.service.EmailService;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.context.event.EventListener;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.concurrent.CancellationException;
+
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class EmailKafkaListener {
 
+    private static final String LISTENER_ID = "email-notifications";
+
     private final EmailService emailService;
 
-    @KafkaListener(topics = "email-notifications", groupId = "notification-group")
-    public void handleUserRegistration(UserRegisteredEvent event) {
-        log.info("Received email notification: {}", event.email());
+    private final OffsetCompletionTracker offsetCompletionTracker;
+
+    private final ProcessedEventStore processedEventStore;
+
+    private final EmailRetryScheduler emailRetryScheduler;
+
+    private final KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
+
+    // The container is looked up on use, it is registered only after this bean is initialized
+    @PostConstruct
+    void bindBackPressure() {
+        offsetCompletionTracker.onSaturation(
+                () -> kafkaListenerEndpointRegistry.getListenerContainer(LISTENER_ID).pause(),
+                () -> kafkaListenerEndpointRegistry.getListenerContainer(LISTENER_ID).resume()
+        );
+    }
+
+    // Sends complete on the mail worker pool; offsets are committed here, on the consumer thread, once contiguous
+    @KafkaListener(
+            id = LISTENER_ID,
+            topics = "${app.kafka.topic}",
+            groupId = "notification-group",
+            batch = "true",
+            concurrency = "${app.kafka.partitions}"
+    )
+    public void handleUserRegistrations(List<ConsumerRecord<String, UserRegisteredEvent>> records,
+                                        Consumer<?, ?> consumer) {
+        log.info("Received {} email notifications", records.size());
+
+        for (ConsumerRecord<String, UserRegisteredEvent> record : records) {
+            UserRegisteredEvent event = record.value();
+            if (event == null || event.verificationToken() == null) {
+                log.warn("Skipping email notification without a verification token at {}-{}@{}",
+                        record.topic(), record.partition(), record.offset());
+                offsetCompletionTracker.skip(record);
+                continue;
+            }
+
+            String key = event.verificationToken();
+            if (!processedEventStore.tryAcquire(key)) {
+                log.debug("Skipping duplicate email notification for {}", event.email());
+                offsetCompletionTracker.skip(record);
+                continue;
+            }
+
+            offsetCompletionTracker.register(record);
+            emailService.sendRegistrationConfirmationEmail(event)
+                    .whenComplete((result, ex) -> {
+                        if (ex == null) {
+                            processedEventStore.markProcessed(key);
+                            offsetCompletionTracker.complete(record);
+                        } else {
+                            retry(record, key, ex);
+                        }
+                    });
+        }
+
+        offsetCompletionTracker.commit(consumer);
+    }
+
+    // The offset and the key stay claimed until the retry settles: a successful resend or an acknowledged dead letter.
+    // A retry cancelled on shutdown leaves the offset uncommitted, so the record is delivered again after the restart
+    private void retry(ConsumerRecord<String, UserRegisteredEvent> record, String key, Throwable cause) {
+        emailRetryScheduler.schedule(record, cause)
+                .whenComplete((result, ex) -> {
+                    if (ex == null) {
+                        processedEventStore.markProcessed(key);
+                        offsetCompletionTracker.complete(record);
+                    } else if (ex instanceof CancellationException) {
+                        processedEventStore.release(key);
+                    } else {
+                        processedEventStore.release(key);
+                        offsetCompletionTracker.complete(record);
+                    }
+                });
+    }
 
-        emailService.sendRegistrationConfirmationEmail(event);
+    @EventListener(condition = "event.listenerId.startsWith('" + LISTENER_ID + "')")
+    public void onIdle(ListenerContainerIdleEvent event) {
+        offsetCompletionTracker.commit(event.getConsumer());
     }
 
 }
@@ -0,0 +1,164 @@
+package by.aresheg.notification.kafka;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Tracks records handed to the worker pool, so they can complete out of order while only
+ * the highest contiguous completed offset of each partition is committed.
+ * Registration and commits happen on the consumer thread, completions on worker threads.
+ * Once the in-flight limit is reached the listener is paused rather than the consumer thread blocked,
+ * so poll() keeps running within max.poll.interval.ms; it is resumed when half of the limit has drained.
+ * Records of the batch being handled are still registered, so the limit may be exceeded by one poll.
+ */
+@Component
+@Slf4j
+public class OffsetCompletionTracker implements ConsumerAwareRebalanceListener {
+
+    private final Map<TopicPartition, PartitionState> partitions = new ConcurrentHashMap<>();
+
+    private final int maxInFlight;
+
+    private final int resumeAt;
+
+    // Guarded by this, together with the pause state
+    private int inFlight;
+
+    private boolean paused;
+
+    private Runnable pause = () -> { };
+
+    private Runnable resume = () -> { };
+
+    public OffsetCompletionTracker(@Value("${app.kafka.max-in-flight}") int maxInFlight) {
+        this.maxInFlight = maxInFlight;
+        this.resumeAt = maxInFlight / 2;
+    }
+
+    public synchronized void onSaturation(Runnable pause, Runnable resume) {
+        this.pause = pause;
+        this.resume = resume;
+    }
+
+    public void register(ConsumerRecord<?, ?> record) {
+        partitions.computeIfAbsent(new TopicPartition(record.topic(), record.partition()), tp -> new PartitionState())
+                .register(record.offset());
+        synchronized (this) {
+            if (++inFlight >= maxInFlight && !paused) {
+                paused = true;
+                log.info("{} records in flight, pausing consumption", inFlight);
+                pause.run();
+            }
+        }
+    }
+
+    /**
+     * Moves the committable offset past a record that is never handed to the worker pool, such as a duplicate.
+     */
+    public void skip(ConsumerRecord<?, ?> record) {
+        partitions.computeIfAbsent(new TopicPartition(record.topic(), record.partition()), tp -> new PartitionState())
+                .skip(record.offset());
+    }
+
+    public void complete(ConsumerRecord<?, ?> record) {
+        PartitionState state = partitions.get(new TopicPartition(record.topic(), record.partition()));
+        if (state != null) {
+            state.pending.remove(record.offset());
+        }
+        synchronized (this) {
+            if (--inFlight <= resumeAt && paused) {
+                paused = false;
+                log.info("{} records in flight, resuming consumption", inFlight);
+                resume.run();
+            }
+        }
+    }
+
+    public void commit(Consumer<?, ?> consumer) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = committableOffsets(consumer.assignment());
+        if (offsets.isEmpty()) {
+            return;
+        }
+
+        consumer.commitAsync(offsets, (committed, ex) -> {
+            if (ex != null) {
+                log.warn("Failed to commit offsets {}: {}", committed, ex.getMessage());
+                return;
+            }
+            committed.forEach((tp, offset) -> {
+                PartitionState state = partitions.get(tp);
+                if (state != null) {
+                    state.committedOffset = Math.max(state.committedOffset, offset.offset());
+                }
+            });
+        });
+    }
+
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> revoked) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = committableOffsets(revoked);
+        if (!offsets.isEmpty()) {
+            consumer.commitSync(offsets);
+        }
+        revoked.forEach(partitions::remove);
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> lost) {
+        lost.forEach(partitions::remove);
+    }
+
+    private Map<TopicPartition, OffsetAndMetadata> committableOffsets(Collection<TopicPartition> assigned) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        for (TopicPartition tp : assigned) {
+            PartitionState state = partitions.get(tp);
+            if (state == null) {
+                continue;
+            }
+            long committable = state.committableOffset();
+            if (committable > state.committedOffset) {
+                offsets.put(tp, new OffsetAndMetadata(committable));
+            }
+        }
+        return offsets;
+    }
+
+    private static class PartitionState {
+
+        private final ConcurrentSkipListSet<Long> pending = new ConcurrentSkipListSet<>();
+
+        private volatile long highestRegistered = -1L;
+
+        private volatile long committedOffset = -1L;
+
+        void register(long offset) {
+            pending.add(offset);
+            highestRegistered = Math.max(highestRegistered, offset);
+        }
+
+        void skip(long offset) {
+            highestRegistered = Math.max(highestRegistered, offset);
+        }
+
+        // Everything below the lowest pending offset has completed
+        long committableOffset() {
+            Iterator<Long> iterator = pending.iterator();
+            return iterator.hasNext() ? iterator.next() : highestRegistered + 1;
+        }
+
+    }
+
+}
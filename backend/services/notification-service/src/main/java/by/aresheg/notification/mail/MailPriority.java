@@ -0,0 +1,11 @@
+package by.aresheg.notification.mail;
+
+/**
+ * Outbound lanes in dispatch order: a queued message is only sent once every lane above it is empty.
+ */
+public enum MailPriority {
+
+    TRANSACTIONAL,
+    BULK
+
+}
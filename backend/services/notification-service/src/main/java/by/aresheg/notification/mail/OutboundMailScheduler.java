@@ -0,0 +1,230 @@
+package by.aresheg.notification.mail;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Shapes outgoing mail to the limits of the SMTP relay. Messages wait in priority lanes and a single
+ * dispatcher thread releases them through a token bucket (a per-minute rate with a small burst) and an
+ * optional daily quota, handing each one to a sender thread that owns a pooled connection.
+ * Nothing is dropped: when the quota is used up, mail stays queued until the next UTC day.
+ */
+@Component
+@Slf4j
+public class OutboundMailScheduler implements DisposableBean {
+
+    private static final Comparator<QueuedMail> DISPATCH_ORDER = Comparator
+            .comparing(QueuedMail::priority)
+            .thenComparingLong(QueuedMail::sequence);
+
+    private final SmtpTransportPool smtpTransportPool;
+
+    private final PriorityBlockingQueue<QueuedMail> queue = new PriorityBlockingQueue<>(64, DISPATCH_ORDER);
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Map<MailPriority, AtomicInteger> depth = new EnumMap<>(MailPriority.class);
+
+    private final Map<MailPriority, Timer> waitTimers = new EnumMap<>(MailPriority.class);
+
+    private final Semaphore senders;
+
+    private final ExecutorService senderExecutor;
+
+    private final Thread dispatcher;
+
+    private final double tokensPerNano;
+
+    private final double burst;
+
+    private final int perDay;
+
+    // Token bucket and daily quota state, only touched by the dispatcher thread
+    private double tokens;
+
+    private long refilledAt;
+
+    private LocalDate quotaDay;
+
+    private int sentToday;
+
+    private volatile boolean running = true;
+
+    public OutboundMailScheduler(SmtpTransportPool smtpTransportPool,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.email.rate.per-minute:20}") int perMinute,
+                                 @Value("${app.email.rate.burst:5}") int burst,
+                                 @Value("${app.email.rate.per-day:0}") int perDay,
+                                 @Value("${app.email.pool.max-size:4}") int concurrency) {
+        this.smtpTransportPool = smtpTransportPool;
+        this.tokensPerNano = perMinute / (double) TimeUnit.MINUTES.toNanos(1);
+        this.burst = Math.max(1, burst);
+        this.perDay = perDay;
+        this.tokens = this.burst;
+        this.refilledAt = System.nanoTime();
+        this.quotaDay = LocalDate.now(ZoneOffset.UTC);
+
+        for (MailPriority priority : MailPriority.values()) {
+            AtomicInteger lane = new AtomicInteger();
+            depth.put(priority, lane);
+            Gauge.builder("notification.email.outbound.queue", lane, AtomicInteger::get)
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry);
+            waitTimers.put(priority, Timer.builder("notification.email.outbound.wait")
+                    .tag("priority", priority.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+
+        this.senders = new Semaphore(concurrency);
+        this.senderExecutor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "email-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.dispatcher = new Thread(this::dispatch, "email-dispatcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    /**
+     * @return a future completed once the message is accepted by the SMTP server
+     */
+    public CompletableFuture<Void> submit(SimpleMailMessage message, MailPriority priority) {
+        QueuedMail mail = new QueuedMail(message, priority, sequence.getAndIncrement(), System.nanoTime(), new CompletableFuture<>());
+        if (!running) {
+            mail.result().completeExceptionally(new MailSendException("Outbound mail scheduler is stopped"));
+            return mail.result();
+        }
+
+        depth.get(priority).incrementAndGet();
+        queue.offer(mail);
+        return mail.result();
+    }
+
+    private void dispatch() {
+        QueuedMail held = null;
+        try {
+            while (running) {
+                senders.acquire();
+                held = queue.take();
+                awaitPermit();
+                // Mail of a higher lane may have arrived while waiting for a token
+                queue.offer(held);
+                held = null;
+                QueuedMail mail = queue.take();
+
+                depth.get(mail.priority()).decrementAndGet();
+                waitTimers.get(mail.priority()).record(System.nanoTime() - mail.enqueuedAt(), TimeUnit.NANOSECONDS);
+                senderExecutor.execute(() -> send(mail));
+            }
+        } catch (InterruptedException ex) {
+            // Put back the mail taken while waiting for a token, so destroy() fails it with the rest of the queue
+            if (held != null) {
+                queue.offer(held);
+            }
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void send(QueuedMail mail) {
+        try {
+            smtpTransportPool.send(mail.message());
+            mail.result().complete(null);
+        } catch (RuntimeException ex) {
+            mail.result().completeExceptionally(ex);
+        } finally {
+            senders.release();
+        }
+    }
+
+    private void awaitPermit() throws InterruptedException {
+        if (perDay > 0) {
+            awaitDailyQuota();
+        }
+
+        while (true) {
+            long now = System.nanoTime();
+            tokens = Math.min(burst, tokens + (now - refilledAt) * tokensPerNano);
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return;
+            }
+            parkNanos((long) Math.ceil((1 - tokens) / tokensPerNano));
+        }
+    }
+
+    private void awaitDailyQuota() throws InterruptedException {
+        while (true) {
+            LocalDate today = LocalDate.now(ZoneOffset.UTC);
+            if (!today.equals(quotaDay)) {
+                quotaDay = today;
+                sentToday = 0;
+            }
+            if (sentToday < perDay) {
+                sentToday++;
+                return;
+            }
+
+            log.warn("Daily send quota of {} reached, holding {} queued emails until tomorrow", perDay, queue.size() + 1);
+            Duration untilTomorrow = Duration.between(
+                    Instant.now(),
+                    today.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant()
+            );
+            parkNanos(untilTomorrow.toNanos());
+        }
+    }
+
+    private static void parkNanos(long nanos) throws InterruptedException {
+        LockSupport.parkNanos(nanos);
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+    }
+
+    @Override
+    public void destroy() throws InterruptedException {
+        running = false;
+        dispatcher.interrupt();
+        dispatcher.join(TimeUnit.SECONDS.toMillis(5));
+        senderExecutor.shutdown();
+
+        QueuedMail mail;
+        while ((mail = queue.poll()) != null) {
+            depth.get(mail.priority()).decrementAndGet();
+            mail.result().completeExceptionally(new MailSendException("Outbound mail scheduler stopped before sending"));
+        }
+    }
+
+    private record QueuedMail(SimpleMailMessage message,
+                              MailPriority priority,
+                              long sequence,
+                              long enqueuedAt,
+                              CompletableFuture<Void> result) {
+    }
+
+}
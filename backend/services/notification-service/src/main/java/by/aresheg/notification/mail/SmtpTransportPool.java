@@ -0,0 +1,145 @@
+package by.aresheg.notification.mail;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Session;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMailMessage;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps a small set of connected and authenticated SMTP transports, so a message does not pay
+ * for connect, STARTTLS and AUTH every time. Connections are checked with NOOP before reuse
+ * and closed once idle for longer than the idle timeout.
+ */
+@Component
+@Slf4j
+public class SmtpTransportPool implements DisposableBean {
+
+    private final JavaMailSenderImpl mailSender;
+
+    private final BlockingDeque<PooledTransport> idle = new LinkedBlockingDeque<>();
+
+    private final Semaphore permits;
+
+    private final long idleTimeoutNanos;
+
+    private final long borrowTimeoutNanos;
+
+    public SmtpTransportPool(JavaMailSenderImpl mailSender,
+                             @Value("${app.email.pool.max-size:4}") int maxSize,
+                             @Value("${app.email.pool.idle-timeout:60s}") Duration idleTimeout,
+                             @Value("${app.email.pool.borrow-timeout:10s}") Duration borrowTimeout) {
+        this.mailSender = mailSender;
+        this.permits = new Semaphore(maxSize);
+        this.idleTimeoutNanos = idleTimeout.toNanos();
+        this.borrowTimeoutNanos = borrowTimeout.toNanos();
+    }
+
+    public void send(SimpleMailMessage message) {
+        send(List.of(message));
+    }
+
+    /**
+     * Sends all messages over a single pooled connection.
+     */
+    public void send(List<SimpleMailMessage> messages) {
+        PooledTransport pooled = borrow();
+        boolean healthy = false;
+        try {
+            Session session = mailSender.getSession();
+            for (SimpleMailMessage message : messages) {
+                MimeMessage mimeMessage = new MimeMessage(session);
+                message.copyTo(new MimeMailMessage(mimeMessage));
+                mimeMessage.saveChanges();
+                pooled.transport().sendMessage(mimeMessage, mimeMessage.getAllRecipients());
+            }
+            healthy = true;
+        } catch (MessagingException ex) {
+            throw new MailSendException("Failed to send mail", ex);
+        } finally {
+            release(pooled, healthy);
+        }
+    }
+
+    private PooledTransport borrow() {
+        try {
+            if (!permits.tryAcquire(borrowTimeoutNanos, TimeUnit.NANOSECONDS)) {
+                throw new MailSendException("No SMTP connection available");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted while waiting for an SMTP connection", ex);
+        }
+
+        try {
+            PooledTransport pooled;
+            while ((pooled = idle.pollFirst()) != null) {
+                if (System.nanoTime() - pooled.lastUsedNanos() < idleTimeoutNanos && pooled.transport().isConnected()) {
+                    return pooled;
+                }
+                close(pooled);
+            }
+            return connect();
+        } catch (RuntimeException ex) {
+            permits.release();
+            throw ex;
+        }
+    }
+
+    private PooledTransport connect() {
+        try {
+            String protocol = mailSender.getProtocol() != null ? mailSender.getProtocol() : JavaMailSenderImpl.DEFAULT_PROTOCOL;
+            Transport transport = mailSender.getSession().getTransport(protocol);
+            transport.connect(mailSender.getHost(), mailSender.getPort(), mailSender.getUsername(), mailSender.getPassword());
+            return new PooledTransport(transport, System.nanoTime());
+        } catch (MessagingException ex) {
+            throw new MailSendException("Failed to connect to the SMTP server", ex);
+        }
+    }
+
+    private void release(PooledTransport pooled, boolean healthy) {
+        try {
+            if (healthy) {
+                idle.offerFirst(new PooledTransport(pooled.transport(), System.nanoTime()));
+            } else {
+                close(pooled);
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void close(PooledTransport pooled) {
+        try {
+            pooled.transport().close();
+        } catch (MessagingException ex) {
+            log.debug("Failed to close SMTP connection: {}", ex.getMessage());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        PooledTransport pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            close(pooled);
+        }
+    }
+
+    private record PooledTransport(Transport transport, long lastUsedNanos) {
+    }
+
+}
@@ -0,0 +1,236 @@
+package by.aresheg.notification.retry;
+
+import by.aresheg.notification.dto.UserRegisteredEvent;
+import by.aresheg.notification.service.EmailService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Retries failed email sends with exponential backoff and jitter. Pending retries wait in the delay queue
+ * of a single timer thread and are resent on the mail worker pool, so neither the consumer nor a worker
+ * sleeps between attempts. Messages that run out of attempts or overflow the pending limit are published
+ * to the dead-letter topic together with the failure details, and a failed dead-letter send is repeated
+ * with the same backoff. Retries still waiting on shutdown are cancelled rather than dead-lettered, so the
+ * caller leaves their offsets uncommitted and Kafka delivers them again after the restart.
+ */
+@Component
+@Slf4j
+public class EmailRetryScheduler implements DisposableBean {
+
+    public static final String ATTEMPTS_HEADER = "x-delivery-attempts";
+
+    private final EmailService emailService;
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+
+    private final ScheduledThreadPoolExecutor timer;
+
+    private final Set<RetryTask> pending = ConcurrentHashMap.newKeySet();
+
+    private final String deadLetterTopic;
+
+    private final int maxAttempts;
+
+    private final long initialDelayMillis;
+
+    private final long maxDelayMillis;
+
+    private final int maxPending;
+
+    private final Counter scheduledCounter;
+
+    private final Counter succeededCounter;
+
+    private final Counter deadLetteredCounter;
+
+    public EmailRetryScheduler(EmailService emailService,
+                               KafkaTemplate<String, Object> kafkaTemplate,
+                               MeterRegistry meterRegistry,
+                               @Value("${app.kafka.dead-letter-topic}") String deadLetterTopic,
+                               @Value("${app.email.retry.max-attempts:5}") int maxAttempts,
+                               @Value("${app.email.retry.initial-delay:2s}") Duration initialDelay,
+                               @Value("${app.email.retry.max-delay:5m}") Duration maxDelay,
+                               @Value("${app.email.retry.max-pending:10000}") int maxPending) {
+        this.emailService = emailService;
+        this.kafkaTemplate = kafkaTemplate;
+        this.deadLetterTopic = deadLetterTopic;
+        this.maxAttempts = maxAttempts;
+        this.initialDelayMillis = initialDelay.toMillis();
+        this.maxDelayMillis = maxDelay.toMillis();
+        this.maxPending = maxPending;
+
+        this.timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "email-retry-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timer.setRemoveOnCancelPolicy(true);
+
+        this.scheduledCounter = retriesCounter(meterRegistry, "scheduled");
+        this.succeededCounter = retriesCounter(meterRegistry, "succeeded");
+        this.deadLetteredCounter = retriesCounter(meterRegistry, "dead_lettered");
+        Gauge.builder("notification.email.retries.pending", pending, Set::size).register(meterRegistry);
+    }
+
+    /**
+     * Takes over a record whose first send failed.
+     *
+     * @return a future completed once a retry succeeds, completed exceptionally once the dead-letter topic has
+     * acknowledged the record, or cancelled if the scheduler stops first
+     */
+    public CompletableFuture<Void> schedule(ConsumerRecord<String, UserRegisteredEvent> record, Throwable cause) {
+        RetryTask task = new RetryTask(record);
+        if (pending.size() >= maxPending) {
+            log.warn("Retry queue is full, dead-lettering email to: {}", record.value().email());
+            pending.add(task);
+            deadLetter(task, unwrap(cause));
+            return task.result;
+        }
+
+        pending.add(task);
+        scheduleNext(task, unwrap(cause));
+        return task.result;
+    }
+
+    private void scheduleNext(RetryTask task, Throwable cause) {
+        if (task.attempts >= maxAttempts) {
+            deadLetter(task, cause);
+            return;
+        }
+
+        long delay = backoff(task.attempts);
+        try {
+            timer.schedule(() -> attempt(task), delay, TimeUnit.MILLISECONDS);
+            scheduledCounter.increment();
+            log.debug("Retrying email to {} in {} ms, attempt {}", task.record.value().email(), delay, task.attempts + 1);
+        } catch (RejectedExecutionException ex) {
+            cancel(task);
+        }
+    }
+
+    private void attempt(RetryTask task) {
+        task.attempts++;
+        emailService.sendRegistrationConfirmationEmail(task.record.value())
+                .whenComplete((result, ex) -> {
+                    if (ex == null) {
+                        pending.remove(task);
+                        succeededCounter.increment();
+                        task.result.complete(null);
+                    } else {
+                        scheduleNext(task, unwrap(ex));
+                    }
+                });
+    }
+
+    // Exponential backoff with equal jitter: half of the delay is fixed, the other half random
+    private long backoff(int attempts) {
+        long exponential = initialDelayMillis << Math.min(attempts - 1, 30);
+        long delay = Math.min(maxDelayMillis, exponential);
+        long half = delay / 2;
+        return half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+
+    // The task stays pending until the dead letter is acknowledged, so a shutdown in between cancels it
+    private void deadLetter(RetryTask task, Throwable cause) {
+        ConsumerRecord<String, UserRegisteredEvent> record = task.record;
+        ProducerRecord<String, Object> deadLetter = new ProducerRecord<>(deadLetterTopic, record.key(), record.value());
+        deadLetter.headers()
+                .add(KafkaHeaders.DLT_ORIGINAL_TOPIC, bytes(record.topic()))
+                .add(KafkaHeaders.DLT_ORIGINAL_PARTITION, ByteBuffer.allocate(Integer.BYTES).putInt(record.partition()).array())
+                .add(KafkaHeaders.DLT_ORIGINAL_OFFSET, ByteBuffer.allocate(Long.BYTES).putLong(record.offset()).array())
+                .add(KafkaHeaders.DLT_EXCEPTION_FQCN, bytes(cause.getClass().getName()))
+                .add(KafkaHeaders.DLT_EXCEPTION_MESSAGE, bytes(Objects.toString(cause.getMessage(), "")))
+                .add(ATTEMPTS_HEADER, bytes(String.valueOf(task.attempts)));
+
+        kafkaTemplate.send(deadLetter).whenComplete((result, ex) -> {
+            if (ex == null) {
+                pending.remove(task);
+                deadLetteredCounter.increment();
+                log.warn("Email to {} dead-lettered after {} attempts", record.value().email(), task.attempts);
+                task.result.completeExceptionally(cause);
+                return;
+            }
+
+            long delay = backoff(++task.deadLetterAttempts);
+            log.error("Failed to dead-letter email to: {}, trying again in {} ms", record.value().email(), delay, ex);
+            try {
+                timer.schedule(() -> deadLetter(task, cause), delay, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException rejected) {
+                cancel(task);
+            }
+        });
+    }
+
+    private void cancel(RetryTask task) {
+        pending.remove(task);
+        task.result.cancel(false);
+    }
+
+    private static Throwable unwrap(Throwable ex) {
+        while ((ex instanceof CompletionException || ex instanceof ExecutionException) && ex.getCause() != null) {
+            ex = ex.getCause();
+        }
+        return ex;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static Counter retriesCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("notification.email.retries")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void destroy() {
+        timer.shutdownNow();
+        Set<RetryTask> unsettled = Set.copyOf(pending);
+        unsettled.forEach(this::cancel);
+        if (!unsettled.isEmpty()) {
+            log.info("Cancelled {} pending email retries, their records are redelivered after restart", unsettled.size());
+        }
+    }
+
+    private static final class RetryTask {
+
+        private final ConsumerRecord<String, UserRegisteredEvent> record;
+
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+        // The send that handed the record over counts as the first attempt
+        private volatile int attempts = 1;
+
+        private volatile int deadLetterAttempts;
+
+        private RetryTask(ConsumerRecord<String, UserRegisteredEvent> record) {
+            this.record = record;
+        }
+
+    }
+
+}
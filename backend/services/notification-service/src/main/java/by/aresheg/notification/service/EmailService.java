@@ -2,8 +2,10 @@ package by.aresheg.notification.service;
 
 import by.aresheg.notification.dto.UserRegisteredEvent;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface EmailService {
 
-    void sendRegistrationConfirmationEmail(UserRegisteredEvent dto);
+    CompletableFuture<Void> sendRegistrationConfirmationEmail(UserRegisteredEvent dto);
 
 }
@@ -1,21 +1,31 @@
 package by.aresheg.notification.service.impl;
 
 import by.aresheg.notification.dto.UserRegisteredEvent;
+import by.aresheg.notification.mail.MailPriority;
+import by.aresheg.notification.mail.OutboundMailScheduler;
 import by.aresheg.notification.service.EmailService;
+import by.aresheg.notification.template.EmailTemplateEngine;
+import by.aresheg.notification.template.TemplateFormat;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class EmailServiceImpl implements EmailService {
 
-    private final JavaMailSender javaMailSender;
+    private static final String REGISTRATION_CONFIRMATION_TEMPLATE = "registration-confirmation";
+
+    private final OutboundMailScheduler outboundMailScheduler;
+
+    private final EmailTemplateEngine emailTemplateEngine;
 
     @Value("${app.email.from}")
     private String fromEmail;
@@ -26,23 +36,28 @@ public class EmailServiceImpl implements EmailService {
     @Value("${app.email.verification.url}")
     private String verificationUrl;
 
+    // Rendering is cheap, so it runs on the caller; the send itself is queued on the outbound scheduler
     @Override
-    @Async
-    public void sendRegistrationConfirmationEmail(UserRegisteredEvent dto) {
+    public CompletableFuture<Void> sendRegistrationConfirmationEmail(UserRegisteredEvent dto) {
         try {
             String fullVerificationUrl = verificationUrl + dto.verificationToken();
             String text = buildEmailText(dto, fullVerificationUrl);
 
-            sendEmail(dto.email(), text);
-
-            log.info("Verification email sent to: {}", dto.email());
+            return sendEmail(dto.email(), text, MailPriority.TRANSACTIONAL)
+                    .whenComplete((result, ex) -> {
+                        if (ex == null) {
+                            log.info("Verification email sent to: {}", dto.email());
+                        } else {
+                            log.error("Failed to send verification email to: {}", dto.email(), ex);
+                        }
+                    });
         } catch (Exception ex) {
             log.error("Failed to send verification email to: {}", dto.email(), ex);
+            return CompletableFuture.failedFuture(ex);
         }
-
     }
 
-    private void sendEmail(String toEmail, String text) {
+    private CompletableFuture<Void> sendEmail(String toEmail, String text, MailPriority priority) {
         SimpleMailMessage message = new SimpleMailMessage();
 
         message.setTo(toEmail);
@@ -50,19 +65,18 @@ public class EmailServiceImpl implements EmailService {
         message.setSubject(verificationSubject);
         message.setText(text);
 
-        javaMailSender.send(message);
+        return outboundMailScheduler.submit(message, priority);
     }
 
     private String buildEmailText(UserRegisteredEvent dto, String fullVerificationUrl) {
-        return String.format(
-                "Welcome to DeliveryPlatform, %s!\\n\\n" +
-                        "Thank you for creating an account with us.\\n\\n" +
-                        "Please verify your email address to activate your account and start using our delivery services:\\n" +
-                        "%s\\n\\n" +
-                        "This verification link expires in 24 hours.\\n\\n" +
-                        "Happy delivering!\\nThe DeliveryPlatform Team",
-                dto.fullName(),
-                fullVerificationUrl
+        return emailTemplateEngine.render(
+                REGISTRATION_CONFIRMATION_TEMPLATE,
+                Locale.ENGLISH,
+                TemplateFormat.TEXT,
+                Map.of(
+                        "fullName", dto.fullName(),
+                        "verificationUrl", fullVerificationUrl
+                )
         );
     }
 
@@ -0,0 +1,87 @@
+package by.aresheg.notification.template;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Template split once into literal segments and placeholder names, so rendering is a plain
+ * sequence of appends. Literal {@code i} is followed by placeholder {@code i}, the last literal closes the template.
+ */
+final class CompiledTemplate {
+
+    private static final String OPEN = "{{";
+
+    private static final String CLOSE = "}}";
+
+    private final String[] literals;
+
+    private final String[] placeholders;
+
+    private final TemplateFormat format;
+
+    private final int estimatedLength;
+
+    private CompiledTemplate(String[] literals, String[] placeholders, TemplateFormat format, int estimatedLength) {
+        this.literals = literals;
+        this.placeholders = placeholders;
+        this.format = format;
+        this.estimatedLength = estimatedLength;
+    }
+
+    static CompiledTemplate compile(String source, TemplateFormat format) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+
+        int position = 0;
+        int open;
+        while ((open = source.indexOf(OPEN, position)) >= 0) {
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder at position " + open);
+            }
+            literals.add(source.substring(position, open));
+            placeholders.add(source.substring(open + OPEN.length(), close).trim());
+            position = close + CLOSE.length();
+        }
+        literals.add(source.substring(position));
+
+        return new CompiledTemplate(
+                literals.toArray(String[]::new),
+                placeholders.toArray(String[]::new),
+                format,
+                source.length()
+        );
+    }
+
+    void renderTo(StringBuilder out, Map<String, ?> model) {
+        out.ensureCapacity(estimatedLength + placeholders.length * 32);
+        for (int i = 0; i < placeholders.length; i++) {
+            out.append(literals[i]);
+            Object value = model.get(placeholders[i]);
+            if (value != null) {
+                appendValue(out, value.toString());
+            }
+        }
+        out.append(literals[literals.length - 1]);
+    }
+
+    private void appendValue(StringBuilder out, String value) {
+        if (format != TemplateFormat.HTML) {
+            out.append(value);
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            switch (ch) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(ch);
+            }
+        }
+    }
+
+}
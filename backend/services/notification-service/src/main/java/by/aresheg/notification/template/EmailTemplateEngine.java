@@ -0,0 +1,137 @@
+package by.aresheg.notification.template;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Loads email templates from {@code app.email.templates.location} once, compiles them and caches them
+ * per name, locale and format. Templates are looked up as {@code name_lang_COUNTRY}, {@code name_lang}
+ * and {@code name}. A changed template file is picked up after the reload interval.
+ */
+@Component
+@Slf4j
+public class EmailTemplateEngine {
+
+    private static final int MAX_RETAINED_BUFFER = 64 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    private final Map<TemplateKey, CachedTemplate> cache = new ConcurrentHashMap<>();
+
+    private final ResourceLoader resourceLoader;
+
+    private final String location;
+
+    private final long reloadIntervalNanos;
+
+    public EmailTemplateEngine(ResourceLoader resourceLoader,
+                               @Value("${app.email.templates.location:classpath:/templates/email/}") String location,
+                               @Value("${app.email.templates.reload-interval:0s}") Duration reloadInterval) {
+        this.resourceLoader = resourceLoader;
+        this.location = location.endsWith("/") ? location : location + "/";
+        this.reloadIntervalNanos = reloadInterval.toNanos();
+    }
+
+    public String render(String name, Locale locale, TemplateFormat format, Map<String, ?> model) {
+        CompiledTemplate template = getTemplate(new TemplateKey(name, locale, format));
+
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        template.renderTo(buffer, model);
+        String result = buffer.toString();
+
+        if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+            BUFFER.remove();
+        }
+        return result;
+    }
+
+    private CompiledTemplate getTemplate(TemplateKey key) {
+        CachedTemplate cached = cache.get(key);
+        if (cached == null) {
+            return cache.computeIfAbsent(key, this::load).template();
+        }
+
+        if (reloadIntervalNanos > 0 && System.nanoTime() - cached.checkedAtNanos() > reloadIntervalNanos) {
+            return cache.compute(key, (k, current) -> current.lastModified() == lastModified(current.resource())
+                    ? current.checked()
+                    : reload(k, current)
+            ).template();
+        }
+        return cached.template();
+    }
+
+    private CachedTemplate reload(TemplateKey key, CachedTemplate current) {
+        log.info("Reloading email template {}", current.resource().getDescription());
+        try {
+            return load(key);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to reload email template {}, keeping the previous version", current.resource().getDescription(), ex);
+            return current.checked();
+        }
+    }
+
+    private CachedTemplate load(TemplateKey key) {
+        Resource resource = resolve(key);
+        try {
+            String source = resource.getContentAsString(StandardCharsets.UTF_8);
+            return new CachedTemplate(
+                    CompiledTemplate.compile(source, key.format()),
+                    resource,
+                    lastModified(resource),
+                    System.nanoTime()
+            );
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Failed to load email template " + resource.getDescription(), ex);
+        }
+    }
+
+    private Resource resolve(TemplateKey key) {
+        String extension = key.format().getExtension();
+        Locale locale = key.locale();
+
+        String[] candidates = {
+                key.name() + "_" + locale.getLanguage() + "_" + locale.getCountry(),
+                key.name() + "_" + locale.getLanguage(),
+                key.name()
+        };
+        for (String candidate : candidates) {
+            Resource resource = resourceLoader.getResource(location + candidate + extension);
+            if (resource.exists()) {
+                return resource;
+            }
+        }
+        throw new IllegalArgumentException("Email template not found: " + key.name() + extension);
+    }
+
+    private static long lastModified(Resource resource) {
+        try {
+            return resource.lastModified();
+        } catch (IOException ex) {
+            return -1L;
+        }
+    }
+
+    private record TemplateKey(String name, Locale locale, TemplateFormat format) {
+    }
+
+    private record CachedTemplate(CompiledTemplate template, Resource resource, long lastModified, long checkedAtNanos) {
+
+        CachedTemplate checked() {
+            return new CachedTemplate(template, resource, lastModified, System.nanoTime());
+        }
+
+    }
+
+}
@@ -0,0 +1,18 @@
+package by.aresheg.notification.template;
+
+public enum TemplateFormat {
+
+    TEXT(".txt"),
+    HTML(".html");
+
+    private final String extension;
+
+    TemplateFormat(String extension) {
+        this.extension = extension;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+}
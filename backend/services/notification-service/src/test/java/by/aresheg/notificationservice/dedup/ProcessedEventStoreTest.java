@@ -0,0 +1,80 @@
+package by.aresheg.notificationservice.dedup;
+
+import by.aresheg.notification.dedup.ProcessedEventStore;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProcessedEventStoreTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void suppressesInFlightAndProcessedKeys() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        ProcessedEventStore store = new ProcessedEventStore(10, "", registry);
+
+        assertTrue(store.tryAcquire("a"));
+        assertFalse(store.tryAcquire("a"));
+
+        store.markProcessed("a");
+        assertFalse(store.tryAcquire("a"));
+        assertEquals(2, registry.counter("notification.duplicates.suppressed").count());
+
+        store.destroy();
+    }
+
+    @Test
+    void releasedKeyCanBeRetried() throws Exception {
+        ProcessedEventStore store = new ProcessedEventStore(10, "", new SimpleMeterRegistry());
+
+        assertTrue(store.tryAcquire("a"));
+        store.release("a");
+        assertTrue(store.tryAcquire("a"));
+
+        store.destroy();
+    }
+
+    @Test
+    void evictsOldestKeysBeyondWindow() throws Exception {
+        ProcessedEventStore store = new ProcessedEventStore(2, "", new SimpleMeterRegistry());
+
+        for (String key : new String[]{"a", "b", "c"}) {
+            store.tryAcquire(key);
+            store.markProcessed(key);
+        }
+
+        assertTrue(store.tryAcquire("a"));
+        assertFalse(store.tryAcquire("c"));
+
+        store.destroy();
+    }
+
+    @Test
+    void restoresProcessedKeysFromFileAndCompactsIt() throws Exception {
+        Path file = dir.resolve("processed.log");
+        ProcessedEventStore store = new ProcessedEventStore(2, file.toString(), new SimpleMeterRegistry());
+        for (String key : new String[]{"a", "b", "c", "d", "e"}) {
+            store.tryAcquire(key);
+            store.markProcessed(key);
+        }
+        store.destroy();
+
+        assertEquals(2, Files.readAllLines(file).size());
+
+        ProcessedEventStore restored = new ProcessedEventStore(2, file.toString(), new SimpleMeterRegistry());
+        assertFalse(restored.tryAcquire("e"));
+        assertFalse(restored.tryAcquire("d"));
+        assertTrue(restored.tryAcquire("a"));
+        restored.destroy();
+    }
+
+}
@@ -0,0 +1,160 @@
+package by.aresheg.notificationservice.kafka;
+
+import by.aresheg.notification.NotificationServiceApplication;
+import by.aresheg.notification.dto.UserRegisteredEvent;
+import by.aresheg.notification.service.EmailService;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+/**
+ * Time to drain the same backlog of registrations from an embedded broker with the batch listener and with
+ * the previous single-record listener on one consumer thread. Run with {@code gradle benchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest(
+        classes = {NotificationServiceApplication.class, EmailKafkaListenerBenchmark.BaselineListener.class},
+        properties = {
+                "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+                "spring.kafka.listener.auto-startup=false",
+                "spring.cloud.config.enabled=false",
+                "eureka.client.enabled=false",
+                "app.email.from=noreply@example.com",
+                "app.kafka.partitions=3"
+        }
+)
+@EmbeddedKafka(partitions = 3, topics = "email-notifications")
+class EmailKafkaListenerBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailKafkaListenerBenchmark.class);
+
+    private static final int EVENTS = 50_000;
+
+    private static final Drain batch = new Drain();
+
+    private static final Drain baseline = new Drain();
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafkaBroker;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
+
+    @MockitoBean
+    private EmailService emailService;
+
+    @Test
+    void batchListenerAgainstSingleRecordListener() throws Exception {
+        doAnswer(invocation -> {
+            batch.received();
+            return CompletableFuture.completedFuture(null);
+        }).when(emailService).sendRegistrationConfirmationEmail(any());
+        produceBacklog();
+
+        double batchRate = drain("email-notifications", batch);
+        double baselineRate = drain(BaselineListener.ID, baseline);
+
+        log.info("Drained {} events: batch listener {} events/s, single-record listener {} events/s ({}x)",
+                EVENTS, Math.round(batchRate), Math.round(baselineRate), Math.round(batchRate / baselineRate * 10) / 10d);
+    }
+
+    // Timed from the first delivered record, so joining the group and the partition assignment are left out
+    private double drain(String listenerId, Drain drain) throws InterruptedException {
+        kafkaListenerEndpointRegistry.getListenerContainer(listenerId).start();
+
+        assertTrue(drain.remaining.await(2, TimeUnit.MINUTES), "Not all events were consumed by " + listenerId);
+        long elapsed = System.nanoTime() - drain.firstAt.get();
+        kafkaListenerEndpointRegistry.getListenerContainer(listenerId).stop();
+        return EVENTS * 1e9 / elapsed;
+    }
+
+    private void produceBacklog() {
+        Map<String, Object> producerProps = KafkaTestUtils.producerProps(embeddedKafkaBroker);
+        producerProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        producerProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        producerProps.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+        producerProps.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        DefaultKafkaProducerFactory<String, Object> producerFactory = new DefaultKafkaProducerFactory<>(producerProps);
+        KafkaTemplate<String, Object> kafkaTemplate = new KafkaTemplate<>(producerFactory);
+
+        for (int i = 0; i < EVENTS; i++) {
+            String email = "user" + i + "@example.com";
+            kafkaTemplate.send("email-notifications", email, new UserRegisteredEvent(email, "User " + i, "token-" + i));
+        }
+        kafkaTemplate.flush();
+        producerFactory.destroy();
+    }
+
+    /**
+     * The listener as it was before batching: one record per call on a single consumer thread, in its own group,
+     * so it reads the backlog again from the start.
+     */
+    @TestConfiguration
+    static class BaselineListener {
+
+        static final String ID = "single-record-baseline";
+
+        private static final Logger log = LoggerFactory.getLogger(BaselineListener.class);
+
+        @Bean
+        static ConcurrentKafkaListenerContainerFactory<Object, Object> singleRecordContainerFactory(ConsumerFactory<Object, Object> consumerFactory) {
+            ConcurrentKafkaListenerContainerFactory<Object, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
+            factory.setConsumerFactory(consumerFactory);
+            factory.setConcurrency(1);
+            factory.setBatchListener(false);
+            factory.setAutoStartup(false);
+            return factory;
+        }
+
+        @KafkaListener(id = ID, topics = "email-notifications", groupId = "single-record-baseline",
+                containerFactory = "singleRecordContainerFactory")
+        public void handleUserRegistration(UserRegisteredEvent event) {
+            log.info("Received email notification: {}", event.email());
+
+            baseline.received();
+        }
+
+    }
+
+    private static final class Drain {
+
+        private final CountDownLatch remaining = new CountDownLatch(EVENTS);
+
+        private final AtomicLong firstAt = new AtomicLong();
+
+        private void received() {
+            firstAt.compareAndSet(0, System.nanoTime());
+            remaining.countDown();
+        }
+
+    }
+
+}
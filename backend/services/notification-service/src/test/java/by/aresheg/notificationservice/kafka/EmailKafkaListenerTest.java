@@ -0,0 +1,121 @@
+package by.aresheg.notificationservice.kafka;
+
+import by.aresheg.notification.dedup.ProcessedEventStore;
+import by.aresheg.notification.dto.UserRegisteredEvent;
+import by.aresheg.notification.kafka.EmailKafkaListener;
+import by.aresheg.notification.kafka.OffsetCompletionTracker;
+import by.aresheg.notification.retry.EmailRetryScheduler;
+import by.aresheg.notification.service.EmailService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.mail.MailSendException;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmailKafkaListenerTest {
+
+    private static final TopicPartition PARTITION = new TopicPartition("email-notifications", 0);
+
+    private final MockConsumer<String, UserRegisteredEvent> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+
+    private final EmailService emailService = mock(EmailService.class);
+
+    private final EmailRetryScheduler emailRetryScheduler = mock(EmailRetryScheduler.class);
+
+    private final OffsetCompletionTracker offsetCompletionTracker = new OffsetCompletionTracker(10);
+
+    private EmailKafkaListener listener;
+
+    @BeforeEach
+    void setUp() {
+        consumer.assign(Set.of(PARTITION));
+        when(emailService.sendRegistrationConfirmationEmail(any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        listener = new EmailKafkaListener(
+                emailService,
+                offsetCompletionTracker,
+                new ProcessedEventStore(100, "", new SimpleMeterRegistry()),
+                emailRetryScheduler,
+                mock(KafkaListenerEndpointRegistry.class)
+        );
+    }
+
+    @Test
+    void duplicatesAreSkippedAndCommittedPast() throws Exception {
+        UserRegisteredEvent event = new UserRegisteredEvent("user@example.com", "John", "token");
+
+        listener.handleUserRegistrations(List.of(record(0, event), record(1, event)), consumer);
+
+        verify(emailService, times(1)).sendRegistrationConfirmationEmail(event);
+        assertEquals(2L, committedOffset());
+    }
+
+    @Test
+    void tombstonesAndEventsWithoutTokenAreSkipped() throws Exception {
+        UserRegisteredEvent event = new UserRegisteredEvent("user@example.com", "John", "token");
+
+        listener.handleUserRegistrations(List.of(
+                record(0, null),
+                record(1, new UserRegisteredEvent("user@example.com", "John", null)),
+                record(2, event)
+        ), consumer);
+
+        verify(emailService, times(1)).sendRegistrationConfirmationEmail(any());
+        assertEquals(3L, committedOffset());
+    }
+
+    @Test
+    void failedSendHoldsTheOffsetUntilTheRetrySettles() throws Exception {
+        UserRegisteredEvent event = new UserRegisteredEvent("user@example.com", "John", "token");
+        CompletableFuture<Void> retry = new CompletableFuture<>();
+        when(emailService.sendRegistrationConfirmationEmail(event)).thenReturn(CompletableFuture.failedFuture(new MailSendException("down")));
+        when(emailRetryScheduler.schedule(any(), any())).thenReturn(retry);
+
+        listener.handleUserRegistrations(List.of(record(0, event)), consumer);
+        assertEquals(0L, committedOffset());
+
+        retry.completeExceptionally(new MailSendException("dead-lettered"));
+        offsetCompletionTracker.commit(consumer);
+        assertEquals(1L, committedOffset());
+    }
+
+    @Test
+    void retryCancelledOnShutdownLeavesTheOffsetUncommitted() throws Exception {
+        UserRegisteredEvent event = new UserRegisteredEvent("user@example.com", "John", "token");
+        CompletableFuture<Void> retry = new CompletableFuture<>();
+        when(emailService.sendRegistrationConfirmationEmail(event)).thenReturn(CompletableFuture.failedFuture(new MailSendException("down")));
+        when(emailRetryScheduler.schedule(any(), any())).thenReturn(retry);
+
+        listener.handleUserRegistrations(List.of(record(0, event)), consumer);
+        retry.cancel(false);
+        offsetCompletionTracker.commit(consumer);
+
+        assertEquals(0L, committedOffset());
+    }
+
+    private static ConsumerRecord<String, UserRegisteredEvent> record(long offset, UserRegisteredEvent event) {
+        return new ConsumerRecord<>(PARTITION.topic(), PARTITION.partition(), offset, "user@example.com", event);
+    }
+
+    private Long committedOffset() {
+        OffsetAndMetadata committed = consumer.committed(Set.of(PARTITION)).get(PARTITION);
+        return committed == null ? null : committed.offset();
+    }
+
+}
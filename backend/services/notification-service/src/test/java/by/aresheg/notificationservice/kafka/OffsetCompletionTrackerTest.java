@@ -0,0 +1,100 @@
+package by.aresheg.notificationservice.kafka;
+
+import by.aresheg.notification.kafka.OffsetCompletionTracker;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OffsetCompletionTrackerTest {
+
+    private static final TopicPartition PARTITION = new TopicPartition("email-notifications", 0);
+
+    private final MockConsumer<String, String> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+
+    private final OffsetCompletionTracker tracker = new OffsetCompletionTracker(10);
+
+    private final List<ConsumerRecord<String, String>> records = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        consumer.assign(Set.of(PARTITION));
+        for (long offset = 0; offset < 5; offset++) {
+            ConsumerRecord<String, String> record = new ConsumerRecord<>(PARTITION.topic(), PARTITION.partition(), offset, "key", "value");
+            tracker.register(record);
+            records.add(record);
+        }
+    }
+
+    @Test
+    void commitsOnlyContiguousCompletedOffsets() {
+        tracker.complete(records.get(1));
+        tracker.complete(records.get(2));
+        tracker.complete(records.get(4));
+        tracker.commit(consumer);
+
+        assertEquals(0L, committedOffset());
+
+        tracker.complete(records.get(0));
+        tracker.commit(consumer);
+
+        assertEquals(3L, committedOffset());
+
+        tracker.complete(records.get(3));
+        tracker.commit(consumer);
+
+        assertEquals(5L, committedOffset());
+    }
+
+    @Test
+    void revokedPartitionCommitsCompletedOffsetsAndForgetsState() {
+        tracker.complete(records.get(0));
+        tracker.complete(records.get(1));
+
+        tracker.onPartitionsRevokedBeforeCommit(consumer, Set.of(PARTITION));
+        assertEquals(2L, committedOffset());
+
+        tracker.complete(records.get(2));
+        tracker.commit(consumer);
+        assertEquals(2L, committedOffset());
+    }
+
+    @Test
+    void pausesAtInFlightLimitAndResumesAtHalf() {
+        AtomicBoolean paused = new AtomicBoolean();
+        tracker.onSaturation(() -> paused.set(true), () -> paused.set(false));
+
+        for (long offset = 5; offset < 10; offset++) {
+            ConsumerRecord<String, String> record = new ConsumerRecord<>(PARTITION.topic(), PARTITION.partition(), offset, "key", "value");
+            tracker.register(record);
+            records.add(record);
+        }
+        assertTrue(paused.get());
+
+        for (int i = 0; i < 4; i++) {
+            tracker.complete(records.get(i));
+        }
+        assertTrue(paused.get());
+
+        tracker.complete(records.get(4));
+        assertFalse(paused.get());
+    }
+
+    private Long committedOffset() {
+        OffsetAndMetadata committed = consumer.committed(Set.of(PARTITION)).get(PARTITION);
+        return committed == null ? null : committed.offset();
+    }
+
+}
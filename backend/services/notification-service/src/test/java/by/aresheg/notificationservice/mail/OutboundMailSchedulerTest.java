@@ -0,0 +1,99 @@
+package by.aresheg.notificationservice.mail;
+
+import by.aresheg.notification.mail.MailPriority;
+import by.aresheg.notification.mail.OutboundMailScheduler;
+import by.aresheg.notification.mail.SmtpTransportPool;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class OutboundMailSchedulerTest {
+
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+
+    private final SmtpTransportPool smtpTransportPool = mock(SmtpTransportPool.class);
+
+    {
+        doAnswer(invocation -> {
+            sent.add(invocation.<SimpleMailMessage>getArgument(0).getSubject());
+            return null;
+        }).when(smtpTransportPool).send(any(SimpleMailMessage.class));
+    }
+
+    @Test
+    void sendsNoFasterThanConfiguredRate() throws Exception {
+        // 600 per minute is one token every 100 ms, after a burst of 2
+        OutboundMailScheduler scheduler = new OutboundMailScheduler(smtpTransportPool, new SimpleMeterRegistry(), 600, 2, 0, 2);
+
+        long startedAt = System.nanoTime();
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            results.add(scheduler.submit(message("mail-" + i), MailPriority.TRANSACTIONAL));
+        }
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startedAt);
+
+        assertEquals(6, sent.size());
+        assertTrue(elapsedMillis >= 350, "Sent 6 messages in " + elapsedMillis + " ms");
+        scheduler.destroy();
+    }
+
+    @Test
+    void transactionalLaneOvertakesQueuedBulkMail() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        OutboundMailScheduler scheduler = new OutboundMailScheduler(smtpTransportPool, meterRegistry, 600, 1, 0, 1);
+
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            results.add(scheduler.submit(message("bulk-" + i), MailPriority.BULK));
+        }
+        results.add(scheduler.submit(message("verification"), MailPriority.TRANSACTIONAL));
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        assertTrue(sent.indexOf("verification") <= 1, "Sent in order " + sent);
+        assertEquals(1, meterRegistry.get("notification.email.outbound.wait").tag("priority", "transactional").timer().count());
+        assertEquals(0, meterRegistry.get("notification.email.outbound.queue").tag("priority", "bulk").gauge().value());
+        scheduler.destroy();
+    }
+
+    @Test
+    void mailWaitingForTokenFailsOnShutdown() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        // One token per minute, so the second message is held by the dispatcher until shutdown
+        OutboundMailScheduler scheduler = new OutboundMailScheduler(smtpTransportPool, meterRegistry, 1, 1, 0, 1);
+
+        scheduler.submit(message("first"), MailPriority.TRANSACTIONAL).get(5, TimeUnit.SECONDS);
+        CompletableFuture<Void> second = scheduler.submit(message("second"), MailPriority.TRANSACTIONAL);
+        scheduler.destroy();
+
+        ExecutionException ex = assertThrows(ExecutionException.class, () -> second.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(MailSendException.class, ex.getCause());
+        assertEquals(List.of("first"), sent);
+        assertEquals(0, meterRegistry.get("notification.email.outbound.queue").tag("priority", "transactional").gauge().value());
+    }
+
+    private static SimpleMailMessage message(String subject) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setTo("user@example.com");
+        message.setSubject(subject);
+        message.setText("text");
+        return message;
+    }
+
+}
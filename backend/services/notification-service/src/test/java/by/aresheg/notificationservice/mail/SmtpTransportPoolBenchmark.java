@@ -0,0 +1,84 @@
+package by.aresheg.notificationservice.mail;
+
+import by.aresheg.notification.mail.SmtpTransportPool;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Sending over a fresh connection per message compared with pooled connections, one message and one
+ * batch at a time. Run with {@code gradle benchmark}.
+ */
+@Tag("benchmark")
+class SmtpTransportPoolBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(SmtpTransportPoolBenchmark.class);
+
+    private static final int MESSAGES = 100;
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    @Test
+    void pooledConnectionsOutperformConnectionPerMessage() {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost(ServerSetupTest.SMTP.getBindAddress());
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+
+        long perMessageNanos = measure(() -> {
+            for (int i = 0; i < MESSAGES; i++) {
+                mailSender.send(message(i));
+            }
+        });
+
+        SmtpTransportPool pool = new SmtpTransportPool(mailSender, 2, Duration.ofSeconds(60), Duration.ofSeconds(10));
+        long pooledNanos = measure(() -> {
+            for (int i = 0; i < MESSAGES; i++) {
+                pool.send(message(i));
+            }
+        });
+
+        List<SimpleMailMessage> batch = new ArrayList<>(MESSAGES);
+        for (int i = 0; i < MESSAGES; i++) {
+            batch.add(message(i));
+        }
+        long batchNanos = measure(() -> pool.send(batch));
+        pool.destroy();
+
+        assertEquals(MESSAGES * 3, greenMail.getReceivedMessages().length);
+        log.info("Connection per message: {} ms, pooled: {} ms, batched: {} ms for {} messages",
+                TimeUnit.NANOSECONDS.toMillis(perMessageNanos),
+                TimeUnit.NANOSECONDS.toMillis(pooledNanos),
+                TimeUnit.NANOSECONDS.toMillis(batchNanos),
+                MESSAGES);
+    }
+
+    private static long measure(Runnable runnable) {
+        long startedAt = System.nanoTime();
+        runnable.run();
+        return System.nanoTime() - startedAt;
+    }
+
+    private static SimpleMailMessage message(int i) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom("noreply@example.com");
+        message.setTo("user" + i + "@example.com");
+        message.setSubject("Confirm registration");
+        message.setText("Message " + i);
+        return message;
+    }
+
+}
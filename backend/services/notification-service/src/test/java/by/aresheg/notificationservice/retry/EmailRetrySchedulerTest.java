@@ -0,0 +1,125 @@
+package by.aresheg.notificationservice.retry;
+
+import by.aresheg.notification.dto.UserRegisteredEvent;
+import by.aresheg.notification.retry.EmailRetryScheduler;
+import by.aresheg.notification.service.EmailService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.mail.MailSendException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmailRetrySchedulerTest {
+
+    private static final String DLT = "email-notifications-dlt";
+
+    private final EmailService emailService = mock(EmailService.class);
+
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, Object> kafkaTemplate = mock(KafkaTemplate.class);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final EmailRetryScheduler scheduler = new EmailRetryScheduler(
+            emailService, kafkaTemplate, meterRegistry, DLT, 3, Duration.ofMillis(10), Duration.ofMillis(50), 100);
+
+    private final ConsumerRecord<String, UserRegisteredEvent> record = new ConsumerRecord<>(
+            "email-notifications", 2, 42L, "user@example.com",
+            new UserRegisteredEvent("user@example.com", "User", "token"));
+
+    @AfterEach
+    void tearDown() {
+        scheduler.destroy();
+    }
+
+    @Test
+    void retriesUntilSendSucceeds() throws Exception {
+        when(emailService.sendRegistrationConfirmationEmail(any()))
+                .thenReturn(CompletableFuture.failedFuture(new MailSendException("down")))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        scheduler.schedule(record, new MailSendException("down")).get(5, TimeUnit.SECONDS);
+
+        verify(emailService, times(2)).sendRegistrationConfirmationEmail(record.value());
+        verify(kafkaTemplate, never()).send(any(ProducerRecord.class));
+        assertEquals(1, meterRegistry.counter("notification.email.retries", "outcome", "succeeded").count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void deadLettersAfterMaxAttempts() {
+        when(emailService.sendRegistrationConfirmationEmail(any()))
+                .thenReturn(CompletableFuture.failedFuture(new MailSendException("still down")));
+        when(kafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        CompletableFuture<Void> result = scheduler.schedule(record, new MailSendException("down"));
+
+        assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        verify(emailService, times(2)).sendRegistrationConfirmationEmail(record.value());
+
+        ArgumentCaptor<ProducerRecord<String, Object>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(kafkaTemplate).send(captor.capture());
+        ProducerRecord<String, Object> deadLetter = captor.getValue();
+        assertEquals(DLT, deadLetter.topic());
+        assertEquals(record.value(), deadLetter.value());
+        assertEquals(MailSendException.class.getName(), header(deadLetter, KafkaHeaders.DLT_EXCEPTION_FQCN));
+        assertEquals("still down", header(deadLetter, KafkaHeaders.DLT_EXCEPTION_MESSAGE));
+        assertEquals("3", header(deadLetter, EmailRetryScheduler.ATTEMPTS_HEADER));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void failedDeadLetterIsSentAgainBeforeTheResultSettles() {
+        when(emailService.sendRegistrationConfirmationEmail(any()))
+                .thenReturn(CompletableFuture.failedFuture(new MailSendException("still down")));
+        when(kafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.failedFuture(new KafkaException("broker down")))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        CompletableFuture<Void> result = scheduler.schedule(record, new MailSendException("down"));
+
+        assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        verify(kafkaTemplate, times(2)).send(any(ProducerRecord.class));
+        assertEquals(1, meterRegistry.counter("notification.email.retries", "outcome", "dead_lettered").count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void pendingRetriesAreCancelledOnShutdown() {
+        EmailRetryScheduler slowScheduler = new EmailRetryScheduler(
+                emailService, kafkaTemplate, new SimpleMeterRegistry(), DLT, 3, Duration.ofMinutes(1), Duration.ofMinutes(5), 100);
+
+        CompletableFuture<Void> result = slowScheduler.schedule(record, new MailSendException("down"));
+        slowScheduler.destroy();
+
+        assertTrue(result.isCancelled());
+        verify(emailService, never()).sendRegistrationConfirmationEmail(any());
+        verify(kafkaTemplate, never()).send(any(ProducerRecord.class));
+    }
+
+    private static String header(ProducerRecord<String, Object> record, String name) {
+        return new String(record.headers().lastHeader(name).value(), StandardCharsets.UTF_8);
+    }
+
+}
@@ -0,0 +1,90 @@
+package by.aresheg.notificationservice.template;
+
+import by.aresheg.notification.template.EmailTemplateEngine;
+import by.aresheg.notification.template.TemplateFormat;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Time to render the registration email with the precompiled text and HTML templates and with the
+ * previous {@code String.format} body. Run with {@code gradle benchmark}.
+ */
+@Tag("benchmark")
+class EmailTemplateEngineBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailTemplateEngineBenchmark.class);
+
+    private static final int MESSAGES = 1_000_000;
+
+    private static final int WARMUP_MESSAGES = 200_000;
+
+    private static final String VERIFICATION_URL = "http://localhost:8080/api/v1/auth/verify?token=";
+
+    private final EmailTemplateEngine engine = new EmailTemplateEngine(
+            new DefaultResourceLoader(), "classpath:/templates/email/", Duration.ZERO
+    );
+
+    @Test
+    void precompiledTemplatesAgainstStringFormat() {
+        IntFunction<String> format = i -> formatEmailText("User " + i, VERIFICATION_URL + "token-" + i);
+        IntFunction<String> text = i -> render(TemplateFormat.TEXT, i);
+        IntFunction<String> html = i -> render(TemplateFormat.HTML, i);
+
+        double formatRate = measure(format);
+        double textRate = measure(text);
+        double htmlRate = measure(html);
+
+        log.info("Rendered {} emails: String.format {} msg/s, text template {} msg/s ({}x), html template {} msg/s ({}x)",
+                MESSAGES, Math.round(formatRate),
+                Math.round(textRate), Math.round(textRate / formatRate * 10) / 10d,
+                Math.round(htmlRate), Math.round(htmlRate / formatRate * 10) / 10d);
+    }
+
+    private String render(TemplateFormat format, int i) {
+        return engine.render("registration-confirmation", Locale.ENGLISH, format, Map.of(
+                "fullName", "User " + i,
+                "verificationUrl", VERIFICATION_URL + "token-" + i
+        ));
+    }
+
+    private static double measure(IntFunction<String> renderer) {
+        long length = 0;
+        for (int i = 0; i < WARMUP_MESSAGES; i++) {
+            length += renderer.apply(i).length();
+        }
+
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < MESSAGES; i++) {
+            length += renderer.apply(i).length();
+        }
+        long elapsed = System.nanoTime() - startedAt;
+
+        // Keeps the rendered output observable so the loop is not optimized away
+        assertTrue(length > 0);
+        return MESSAGES * 1e9 / elapsed;
+    }
+
+    // The email body as EmailServiceImpl built it before the templates were introduced
+    private static String formatEmailText(String fullName, String fullVerificationUrl) {
+        return String.format(
+                "Welcome to DeliveryPlatform, %s!\n\n" +
+                "Thank you for creating an account with us.\n\n" +
+                "Please verify your email address to activate your account and start using our delivery services:\n" +
+                "%s\n\n" +
+                "This verification link expires in 24 hours.\n\n" +
+                "Happy delivering!\nThe DeliveryPlatform Team",
+                fullName, fullVerificationUrl
+        );
+    }
+
+}
@@ -0,0 +1,80 @@
+package by.aresheg.notificationservice.template;
+
+import by.aresheg.notification.template.EmailTemplateEngine;
+import by.aresheg.notification.template.TemplateFormat;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EmailTemplateEngineTest {
+
+    @TempDir
+    Path templates;
+
+    @Test
+    void rendersBundledRegistrationTemplateWithRealLineBreaks() {
+        EmailTemplateEngine engine = new EmailTemplateEngine(
+                new DefaultResourceLoader(), "classpath:/templates/email/", Duration.ZERO
+        );
+
+        String text = engine.render("registration-confirmation", Locale.ENGLISH, TemplateFormat.TEXT,
+                Map.of("fullName", "John", "verificationUrl", "http://localhost/verify?token=abc"));
+
+        assertTrue(text.startsWith("Welcome to DeliveryPlatform, John!\n\n"));
+        assertTrue(text.contains("\nhttp://localhost/verify?token=abc\n"));
+        assertFalse(text.contains("\\n"));
+    }
+
+    @Test
+    void rendersBundledRegistrationHtmlTemplateWithEscapedValues() {
+        EmailTemplateEngine engine = new EmailTemplateEngine(
+                new DefaultResourceLoader(), "classpath:/templates/email/", Duration.ZERO
+        );
+
+        String html = engine.render("registration-confirmation", Locale.ENGLISH, TemplateFormat.HTML,
+                Map.of("fullName", "<John>", "verificationUrl", "http://localhost/verify?token=abc&lang=en"));
+
+        assertTrue(html.contains("<p>Welcome to DeliveryPlatform, &lt;John&gt;!</p>"));
+        assertTrue(html.contains("<a href=\"http://localhost/verify?token=abc&amp;lang=en\">"));
+    }
+
+    @Test
+    void resolvesLocaleSpecificTemplateAndEscapesHtml() throws IOException {
+        Files.writeString(templates.resolve("greeting.html"), "<p>Hello, {{ name }}</p>");
+        Files.writeString(templates.resolve("greeting_ru.html"), "<p>Привет, {{ name }}</p>");
+        EmailTemplateEngine engine = new EmailTemplateEngine(new DefaultResourceLoader(), templates.toUri().toString(), Duration.ZERO);
+
+        assertEquals("<p>Hello, &lt;b&gt;Tom&lt;/b&gt;</p>",
+                engine.render("greeting", Locale.US, TemplateFormat.HTML, Map.of("name", "<b>Tom</b>")));
+        assertEquals("<p>Привет, Tom</p>",
+                engine.render("greeting", new Locale("ru", "BY"), TemplateFormat.HTML, Map.of("name", "Tom")));
+    }
+
+    @Test
+    void reloadsChangedTemplate() throws Exception {
+        Path template = templates.resolve("greeting.txt");
+        Files.writeString(template, "Hello, {{name}}");
+        EmailTemplateEngine engine = new EmailTemplateEngine(new DefaultResourceLoader(), templates.toUri().toString(), Duration.ofNanos(1));
+
+        assertEquals("Hello, Tom", engine.render("greeting", Locale.ENGLISH, TemplateFormat.TEXT, Map.of("name", "Tom")));
+
+        Files.writeString(template, "Hi, {{name}}");
+        Files.setLastModifiedTime(template, FileTime.from(Instant.now().plusSeconds(10)));
+
+        assertEquals("Hi, Tom", engine.render("greeting", Locale.ENGLISH, TemplateFormat.TEXT, Map.of("name", "Tom")));
+    }
+
+}
@@ -0,0 +1,22 @@
+package by.aresheg.restaurant.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+@Configuration
+public class KafkaTopicConfig {
+
+    // Compacted and keyed by user id: only the latest change of each user is retained
+    @Bean
+    public NewTopic userChangesTopic(@Value("${app.kafka.user-changes-topic}") String topic) {
+        return TopicBuilder.name(topic)
+                .partitions(3)
+                .replicas(1)
+                .compact()
+                .build();
+    }
+
+}
@@ -1,7 +1,14 @@
 package by.aresheg.restaurant.config;
 
+import by.aresheg.restaurant.security.BoundedPasswordEncoder;
+import by.aresheg.restaurant.security.IdentitySigner;
+import by.aresheg.restaurant.security.JwtEntityFactory;
 import by.aresheg.restaurant.security.JwtTokenFilter;
 import by.aresheg.restaurant.security.JwtTokenProvider;
+import by.aresheg.restaurant.security.PasswordHashingExecutor;
+import by.aresheg.restaurant.security.PasswordStrengthCalibrator;
+import by.aresheg.restaurant.security.TrustedIdentityFilter;
+import by.aresheg.restaurant.security.props.IdentityProperties;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -10,10 +17,13 @@ import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.util.Map;
+
 import static org.springframework.security.config.Customizer.withDefaults;
 import static org.springframework.security.config.http.SessionCreationPolicy.STATELESS;
 
@@ -23,10 +33,22 @@ import static org.springframework.security.config.http.SessionCreationPolicy.STA
 @EnableMethodSecurity(securedEnabled = true)
 public class SecurityConfig {
 
+    private static final String BCRYPT_ENCODER_ID = "bcrypt";
+
     private final JwtTokenProvider jwtTokenProvider;
 
+    private final IdentityProperties identityProperties;
+
+    private final IdentitySigner identitySigner;
+
+    private final JwtEntityFactory jwtEntityFactory;
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+        if (identityProperties.isTrusted()) {
+            http.addFilterBefore(new TrustedIdentityFilter(identityProperties, identitySigner, jwtEntityFactory), UsernamePasswordAuthenticationFilter.class);
+        }
+
         return http
                 .cors(withDefaults())
                 .httpBasic(AbstractHttpConfigurer::disable)
@@ -54,8 +76,15 @@ public class SecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashingExecutor passwordHashingExecutor,
+                                           PasswordStrengthCalibrator passwordStrengthCalibrator) {
+        BCryptPasswordEncoder bcrypt = new BCryptPasswordEncoder(passwordStrengthCalibrator.calibrateBcryptStrength());
+
+        // Hashes stored before the {id} prefix was introduced are plain BCrypt and get upgraded on the next login
+        DelegatingPasswordEncoder delegatingPasswordEncoder = new DelegatingPasswordEncoder(BCRYPT_ENCODER_ID, Map.of(BCRYPT_ENCODER_ID, bcrypt));
+        delegatingPasswordEncoder.setDefaultPasswordEncoderForMatches(bcrypt);
+
+        return new BoundedPasswordEncoder(delegatingPasswordEncoder, passwordHashingExecutor);
     }
 
 }
@@ -0,0 +1,23 @@
+package by.aresheg.restaurant.config.props;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Data
+@ConfigurationProperties(prefix = "app.outbox")
+public class OutboxProperties {
+
+    private int batchSize = 100;
+
+    private Duration pollInterval = Duration.ofSeconds(1);
+
+    private Duration sendTimeout = Duration.ofSeconds(10);
+
+    // How long a claimed batch is hidden from other relays; must outlast send-timeout
+    private Duration claimTimeout = Duration.ofSeconds(30);
+
+}
@@ -0,0 +1,14 @@
+package by.aresheg.restaurant.config.props;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Component
+@Data
+@ConfigurationProperties(prefix = "app.users.batch")
+public class UserBatchProperties {
+
+    private int maxSize = 200;
+
+}
@@ -2,11 +2,13 @@ package by.aresheg.restaurant.controller;
 
 import by.aresheg.restaurant.controller.api.AuthControllerAPI;
 import by.aresheg.restaurant.domain.model.auth.dto.response.ApiResponse;
+import by.aresheg.restaurant.domain.model.auth.dto.response.AvailabilityResponseDto;
 import by.aresheg.restaurant.domain.model.auth.dto.request.RegistrationRequestDto;
 import by.aresheg.restaurant.domain.model.auth.dto.response.RegistrationResponseDto;
 import by.aresheg.restaurant.domain.model.auth.dto.auth.JwtRequest;
 import by.aresheg.restaurant.domain.model.auth.dto.auth.JwtResponse;
 import by.aresheg.restaurant.service.AuthService;
+import by.aresheg.restaurant.service.AvailabilityService;
 import by.aresheg.restaurant.service.UserService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -27,6 +29,8 @@ public class AuthController implements AuthControllerAPI {
 
     private final UserService userService;
 
+    private final AvailabilityService availabilityService;
+
     @PostMapping("/register")
     public ResponseEntity<ApiResponse<RegistrationResponseDto>> register(@RequestBody @Valid RegistrationRequestDto request) {
         ApiResponse<RegistrationResponseDto> build = ApiResponse.<RegistrationResponseDto>builder()
@@ -42,6 +46,20 @@ public class AuthController implements AuthControllerAPI {
 
     }
 
+    @GetMapping("/availability")
+    public ResponseEntity<ApiResponse<AvailabilityResponseDto>> checkAvailability(@RequestParam(required = false) String email,
+                                                                                  @RequestParam(required = false) String phone) {
+        return ResponseEntity
+                .status(HttpStatus.OK)
+                .body(ApiResponse.<AvailabilityResponseDto>builder()
+                        .success(true)
+                        .message(AVAILABILITY_CHECKED_SUCCESS.getMessage())
+                        .messageCode(AVAILABILITY_CHECKED_SUCCESS.getMessageCode())
+                        .data(availabilityService.checkAvailability(email, phone))
+                        .build()
+        );
+    }
+
     @PostMapping("/verify-email")
     public ResponseEntity<ApiResponse<JwtResponse>> verifyEmail(@RequestParam String token) {
         return null;
@@ -0,0 +1,42 @@
+package by.aresheg.restaurant.controller;
+
+import by.aresheg.restaurant.domain.model.auth.dto.RoleDto;
+import by.aresheg.restaurant.domain.model.auth.dto.response.ApiResponse;
+import by.aresheg.restaurant.mapper.RoleMapper;
+import by.aresheg.restaurant.service.RoleRegistry;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+import static by.aresheg.restaurant.shared.enums.MessageCode.ROLES_REFRESHED_SUCCESS;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/roles")
+@Tag(name = "Role Controller", description = "Role API")
+public class RoleController {
+
+    private final RoleRegistry roleRegistry;
+
+    private final RoleMapper roleMapper;
+
+    @PostMapping("/refresh")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<ApiResponse<List<RoleDto>>> refresh() {
+        roleRegistry.refreshEverywhere();
+        return ResponseEntity.ok().body(ApiResponse.<List<RoleDto>>builder()
+                .success(true)
+                .message(ROLES_REFRESHED_SUCCESS.getMessage())
+                .messageCode(ROLES_REFRESHED_SUCCESS.getMessageCode())
+                .data(roleRegistry.getRoles().stream().map(roleMapper::toDto).toList())
+                .build()
+        );
+    }
+
+}
@@ -3,14 +3,24 @@ package by.aresheg.restaurant.controller;
 import by.aresheg.restaurant.domain.model.auth.dto.response.ApiResponse;
 import by.aresheg.restaurant.domain.model.auth.dto.request.ChangePasswordRequestDto;
 import by.aresheg.restaurant.domain.model.auth.dto.request.UpdateUserRequestDto;
+import by.aresheg.restaurant.domain.model.auth.dto.request.UserBatchRequestDto;
+import by.aresheg.restaurant.domain.model.auth.dto.response.UserBatchResponseDto;
 import by.aresheg.restaurant.domain.model.auth.dto.response.UserResponseDto;
-import by.aresheg.restaurant.mapper.UserMapper;
+import by.aresheg.restaurant.domain.model.user.ExportFormat;
+import by.aresheg.restaurant.domain.model.user.UserStatus;
+import by.aresheg.restaurant.service.UserExportService;
 import by.aresheg.restaurant.service.UserService;
+import by.aresheg.restaurant.shared.pagination.CursorPage;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 
@@ -24,7 +34,7 @@ public class UserController {
 
     private final UserService userService;
 
-    private final UserMapper userMapper;
+    private final UserExportService userExportService;
 
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<UserResponseDto>> getUserById(@PathVariable Long id) {
@@ -32,22 +42,52 @@ public class UserController {
                 .success(true)
                 .message(USER_RETRIEVED_SUCCESS.getMessage())
                 .messageCode(USER_RETRIEVED_SUCCESS.getMessageCode())
-                .data(userMapper.toDto(userService.getUserById(id)))
+                .data(userService.getUserResponseById(id))
                 .build()
         );
     }
 
     @GetMapping
-    public ResponseEntity<ApiResponse<List<UserResponseDto>>> findAll() {
+    public ResponseEntity<ApiResponse<List<UserResponseDto>>> findAll(@RequestParam(required = false) String cursor,
+                                                                      @RequestParam(required = false) Integer size,
+                                                                      @RequestParam(required = false) UserStatus status) {
+        CursorPage<UserResponseDto> page = userService.getUsers(cursor, size, status);
         return ResponseEntity.ok().body(ApiResponse.<List<UserResponseDto>>builder()
                 .success(true)
                 .message(USERS_RETRIEVED_SUCCESS.getMessage())
                 .messageCode(USERS_RETRIEVED_SUCCESS.getMessageCode())
-                .data(userService.getAllUsers())
+                .data(page.items())
+                .nextCursor(page.nextCursor())
                 .build()
         );
     }
 
+    // POST keeps long id lists out of the URL; one IN query replaces a round trip per user.
+    // Resolves contacts of arbitrary users, so it is reserved for admins and internal callers acting as one
+    @PostMapping("/batch")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<ApiResponse<UserBatchResponseDto>> getUsersByIds(@RequestBody @Valid UserBatchRequestDto request) {
+        return ResponseEntity.ok().body(ApiResponse.<UserBatchResponseDto>builder()
+                .success(true)
+                .message(USERS_RETRIEVED_SUCCESS.getMessage())
+                .messageCode(USERS_RETRIEVED_SUCCESS.getMessageCode())
+                .data(userService.getUsersByIds(request.ids()))
+                .build()
+        );
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasAuthority('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("users." + format.getExtension())
+                        .build()
+                        .toString())
+                .body(out -> userExportService.export(format, out));
+    }
+
     @PutMapping("/{id}")
     public ResponseEntity<ApiResponse<UserResponseDto>> updateUser(@PathVariable Long id, @RequestBody @Valid UpdateUserRequestDto request) {
         return ResponseEntity.ok().body(ApiResponse.<UserResponseDto>builder()
@@ -1,6 +1,7 @@
 package by.aresheg.restaurant.controller.api;
 
 import by.aresheg.restaurant.domain.model.auth.dto.request.RegistrationRequestDto;
+import by.aresheg.restaurant.domain.model.auth.dto.response.AvailabilityResponseDto;
 import by.aresheg.restaurant.domain.model.auth.dto.response.RegistrationResponseDto;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -9,6 +10,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestParam;
 
 @Tag(name = "Auth Controller", description = "Auth API")
 public interface AuthControllerAPI {
@@ -29,4 +31,21 @@ public interface AuthControllerAPI {
     )
     ResponseEntity<by.aresheg.restaurant.domain.model.auth.dto.response.ApiResponse<RegistrationResponseDto>> register(@RequestBody RegistrationRequestDto request);
 
+    @Operation(
+            summary = "Check email and phone availability",
+            description = "Tells whether the given email and phone are still free to register",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Availability of each requested value",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = AvailabilityResponseDto.class)
+                            )
+                    )
+            }
+    )
+    ResponseEntity<by.aresheg.restaurant.domain.model.auth.dto.response.ApiResponse<AvailabilityResponseDto>> checkAvailability(@RequestParam(required = false) String email,
+                                                                                                                                 @RequestParam(required = false) String phone);
+
 }
@@ -0,0 +1,9 @@
+package by.aresheg.restaurant.domain.exception;
+
+public class BatchTooLargeException extends RuntimeException {
+
+    public BatchTooLargeException(String message) {
+        super(message);
+    }
+
+}
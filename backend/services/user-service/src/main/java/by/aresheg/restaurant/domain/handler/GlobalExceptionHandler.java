@@ -4,12 +4,15 @@ import by.aresheg.restaurant.domain.exception.*;
 import by.aresheg.restaurant.domain.exception.auth.InvalidTokenException;
 import by.aresheg.restaurant.domain.model.auth.dto.response.ApiErrorResponse;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import java.time.Instant;
 import java.util.Map;
@@ -59,6 +62,42 @@ public class GlobalExceptionHandler {
                 ));
     }
 
+    @ExceptionHandler({
+            InvalidCursorException.class,
+            BatchTooLargeException.class,
+            MethodArgumentTypeMismatchException.class
+    })
+    public ResponseEntity<ApiErrorResponse> handleBadRequest(
+            RuntimeException ex, HttpServletRequest request) {
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new ApiErrorResponse(
+                        false,
+                        ex instanceof MethodArgumentTypeMismatchException ? "Invalid request parameter" : ex.getMessage(),
+                        "BAD_REQUEST",
+                        Instant.now(),
+                        request.getRequestURI(),
+                        null
+                ));
+    }
+
+    @ExceptionHandler(HttpMessageNotReadableException.class)
+    public ResponseEntity<ApiErrorResponse> handleUnreadableBody(
+            HttpMessageNotReadableException ex, HttpServletRequest request) {
+
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new ApiErrorResponse(
+                        false,
+                        ex.getMostSpecificCause() instanceof BatchTooLargeException tooLarge
+                                ? tooLarge.getMessage()
+                                : "Malformed request body",
+                        "BAD_REQUEST",
+                        Instant.now(),
+                        request.getRequestURI(),
+                        null
+                ));
+    }
+
     @ExceptionHandler({
             EmailAlreadyExistsException.class,
             PhoneAlreadyExistsException.class
@@ -96,9 +135,12 @@ public class GlobalExceptionHandler {
     }
 
 
-    @ExceptionHandler(AccessDeniedException.class)
+    @ExceptionHandler({
+            AccessDeniedException.class,
+            org.springframework.security.access.AccessDeniedException.class
+    })
     public ResponseEntity<ApiErrorResponse> handleAccessDenied(
-            AccessDeniedException ex, HttpServletRequest request) {
+            RuntimeException ex, HttpServletRequest request) {
 
         return ResponseEntity.status(HttpStatus.FORBIDDEN)
                 .body(new ApiErrorResponse(
@@ -111,6 +153,22 @@ public class GlobalExceptionHandler {
                 ));
     }
 
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<ApiErrorResponse> handleServiceOverloaded(
+            ServiceOverloadedException ex, HttpServletRequest request) {
+
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(new ApiErrorResponse(
+                        false,
+                        ex.getMessage(),
+                        "SERVICE_UNAVAILABLE",
+                        Instant.now(),
+                        request.getRequestURI(),
+                        null
+                ));
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<ApiErrorResponse> handleAllExceptions(
             Exception ex, HttpServletRequest request) {
@@ -0,0 +1,19 @@
+package by.aresheg.restaurant.domain.model.auth.dto.request;
+
+import by.aresheg.restaurant.shared.json.BatchIdsDeserializer;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public record UserBatchRequestDto(
+
+        @Schema(description = "Ids of the users to resolve", example = "[1, 2, 3]", requiredMode = Schema.RequiredMode.REQUIRED)
+        @NotEmpty(message = "At least one id is required")
+        @JsonDeserialize(using = BatchIdsDeserializer.class)
+        List<@NotNull(message = "Ids must not be null") Long> ids
+
+) {
+}
@@ -1,5 +1,6 @@
 package by.aresheg.restaurant.domain.model.auth.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 
 @Builder
@@ -11,7 +12,10 @@ public record ApiResponse<T>(
 
         String messageCode,
 
-        T data
+        T data,
+
+        @JsonInclude(JsonInclude.Include.NON_NULL)
+        String nextCursor
 
 ) {
 }
@@ -0,0 +1,17 @@
+package by.aresheg.restaurant.domain.model.auth.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * @param emailAvailable whether the email can be registered, absent when no email was asked for
+ * @param phoneAvailable whether the phone can be registered, absent when no phone was asked for
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AvailabilityResponseDto(
+
+        Boolean emailAvailable,
+
+        Boolean phoneAvailable
+
+) {
+}
@@ -0,0 +1,16 @@
+package by.aresheg.restaurant.domain.model.auth.dto.response;
+
+import java.util.List;
+
+/**
+ * @param users      found users in the order their ids were requested
+ * @param missingIds requested ids without a user
+ */
+public record UserBatchResponseDto(
+
+        List<UserContactDto> users,
+
+        List<Long> missingIds
+
+) {
+}
@@ -0,0 +1,12 @@
+package by.aresheg.restaurant.domain.model.auth.dto.response;
+
+public record UserContactDto(
+
+        Long id,
+
+        String fullName,
+
+        String phone
+
+) {
+}
@@ -0,0 +1,8 @@
+package by.aresheg.restaurant.domain.model.outbox;
+
+public enum OutboxEventType {
+
+    USER_REGISTERED,
+    USER_CHANGED
+
+}
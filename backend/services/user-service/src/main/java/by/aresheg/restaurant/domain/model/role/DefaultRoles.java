@@ -2,7 +2,7 @@ package by.aresheg.restaurant.domain.model.role;
 
 public enum DefaultRoles {
     
-    ROLE_USER,
-    ROLE_ADMIN
+    USER,
+    ADMIN
 
 }
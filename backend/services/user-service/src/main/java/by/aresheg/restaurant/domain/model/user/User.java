@@ -3,7 +3,11 @@ package by.aresheg.restaurant.domain.model.user;
 import by.aresheg.restaurant.domain.model.role.Role;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.time.Instant;
@@ -16,14 +20,25 @@ import java.util.Set;
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
-@Table(name = "users", schema = "user_schema")
+@Table(name = "users", schema = "user_schema", uniqueConstraints = {
+        @UniqueConstraint(name = User.EMAIL_UNIQUE_CONSTRAINT, columnNames = "email"),
+        @UniqueConstraint(name = User.PHONE_UNIQUE_CONSTRAINT, columnNames = "phone")
+})
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user")
+@NaturalIdCache(region = "user-natural-id")
 public class User {
 
+    // Declared in the Liquibase changelog as well; registration maps violations to conflicts by these names
+    public static final String EMAIL_UNIQUE_CONSTRAINT = "users_email_key";
+
+    public static final String PHONE_UNIQUE_CONSTRAINT = "users_phone_key";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(unique = true, nullable = false)
+    @NaturalId
+    @Column(nullable = false)
     private String email;
 
     @Column(nullable = false)
@@ -32,7 +47,7 @@ public class User {
     @Column(nullable = false)
     private String fullName;
 
-    @Column(unique = true, nullable = false)
+    @Column(nullable = false)
     private String phone;
 
     @Enumerated(EnumType.STRING)
@@ -47,7 +62,8 @@ public class User {
 
     private Instant emailVerifiedAt;
 
-    @ManyToMany(fetch = FetchType.EAGER)
+    @ManyToMany(fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-roles")
     @Builder.Default
     @JoinTable(
             name = "users_roles",
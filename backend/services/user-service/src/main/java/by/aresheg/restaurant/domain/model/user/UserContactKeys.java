@@ -0,0 +1,15 @@
+package by.aresheg.restaurant.domain.model.user;
+
+/**
+ * The unique contact columns of a user, read when the availability filters are rebuilt.
+ */
+public record UserContactKeys(
+
+        Long id,
+
+        String email,
+
+        String phone
+
+) {
+}
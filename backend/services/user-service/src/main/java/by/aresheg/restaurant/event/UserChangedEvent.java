@@ -0,0 +1,46 @@
+package by.aresheg.restaurant.event;
+
+import lombok.Builder;
+
+/**
+ * Broadcast to every user-service instance, so each one can drop its cached copy of the user
+ * and keep its email and phone availability filters current. {@link Type#ROLES_REFRESHED} carries
+ * no user and tells every instance to reload its role registry.
+ *
+ * @param previousPhone the phone before an update, set only when the update changed it
+ */
+@Builder
+public record UserChangedEvent(
+
+        Long userId,
+
+        String email,
+
+        String phone,
+
+        String previousPhone,
+
+        Type type
+
+) {
+
+    public enum Type {
+
+        CREATED,
+        UPDATED,
+        DELETED,
+        ROLES_REFRESHED
+
+    }
+
+    private static final String ROLES_KEY = "roles";
+
+    /**
+     * @return the Kafka key: the user id, so compaction keeps the latest change of each user,
+     * and one shared key for role refreshes, of which only the latest matters
+     */
+    public String key() {
+        return type == Type.ROLES_REFRESHED ? ROLES_KEY : String.valueOf(userId);
+    }
+
+}
@@ -0,0 +1,41 @@
+package by.aresheg.restaurant.repository;
+
+import by.aresheg.restaurant.domain.model.outbox.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query(value = """
+            SELECT * FROM user_schema.outbox_event
+            WHERE claimed_until IS NULL OR claimed_until < now()
+            ORDER BY id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("limit") int limit);
+
+    @Modifying
+    @Query(value = """
+            UPDATE user_schema.outbox_event
+            SET claimed_until = now() + :leaseMillis * INTERVAL '1 millisecond'
+            WHERE id IN :ids
+            """, nativeQuery = true)
+    int claim(@Param("ids") Collection<Long> ids, @Param("leaseMillis") long leaseMillis);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.claimedUntil = null WHERE e.id IN :ids")
+    int release(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+}
@@ -0,0 +1,15 @@
+package by.aresheg.restaurant.repository;
+
+import by.aresheg.restaurant.domain.model.user.User;
+
+import java.util.Optional;
+
+public interface UserNaturalIdRepository {
+
+    /**
+     * Resolves the user through the natural-id and entity caches, hitting the database only on a miss.
+     * Roles are initialized before returning, from the collection cache when possible.
+     */
+    Optional<User> findCachedByEmail(String email);
+
+}
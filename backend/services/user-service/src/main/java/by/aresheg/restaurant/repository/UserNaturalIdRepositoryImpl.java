@@ -0,0 +1,33 @@
+package by.aresheg.restaurant.repository;
+
+import by.aresheg.restaurant.domain.model.user.User;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.graph.RootGraph;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+@RequiredArgsConstructor
+public class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<User> findCachedByEmail(String email) {
+        Session session = entityManager.unwrap(Session.class);
+        RootGraph<User> withRoles = session.createEntityGraph(User.class);
+        withRoles.addAttributeNodes("roles");
+
+        // On a cache miss the roles are joined into the same select; a cached user is served without one
+        Optional<User> user = session.bySimpleNaturalId(User.class)
+                .withLoadGraph(withRoles)
+                .loadOptional(email);
+        user.ifPresent(found -> Hibernate.initialize(found.getRoles()));
+        return user;
+    }
+
+}
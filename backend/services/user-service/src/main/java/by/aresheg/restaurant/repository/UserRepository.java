@@ -1,17 +1,88 @@
 package by.aresheg.restaurant.repository;
 
 
+import by.aresheg.restaurant.domain.model.auth.dto.response.UserContactDto;
+import by.aresheg.restaurant.domain.model.auth.dto.response.UserResponseDto;
 import by.aresheg.restaurant.domain.model.user.User;
+import by.aresheg.restaurant.domain.model.user.UserContactKeys;
+import by.aresheg.restaurant.domain.model.user.UserStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserNaturalIdRepository {
 
+    // Entities are loaded with their roles in a single join; read-only paths use the DTO projections below
+    @Override
+    @EntityGraph(attributePaths = "roles")
+    Optional<User> findById(Long id);
+
+    @EntityGraph(attributePaths = "roles")
     Optional<User> findByEmail(String email);
 
+    @Query("""
+            select new by.aresheg.restaurant.domain.model.auth.dto.response.UserResponseDto(u.id, u.email, u.fullName, u.phone, u.status)
+            from User u
+            where u.id = :id
+            """)
+    Optional<UserResponseDto> findDtoById(Long id);
+
+    @Query("""
+            select new by.aresheg.restaurant.domain.model.auth.dto.response.UserContactDto(u.id, u.fullName, u.phone)
+            from User u
+            where u.id in :ids
+            """)
+    List<UserContactDto> findContactsByIdIn(Collection<Long> ids);
+
+    // Keyset pages: seek past the last seen id instead of skipping rows with OFFSET
+    @Query("""
+            select new by.aresheg.restaurant.domain.model.auth.dto.response.UserResponseDto(u.id, u.email, u.fullName, u.phone, u.status)
+            from User u
+            where u.id > :afterId
+            order by u.id
+            """)
+    List<UserResponseDto> findPageAfter(Long afterId, Limit limit);
+
+    @Query("""
+            select new by.aresheg.restaurant.domain.model.auth.dto.response.UserResponseDto(u.id, u.email, u.fullName, u.phone, u.status)
+            from User u
+            where u.id > :afterId and u.status = :status
+            order by u.id
+            """)
+    List<UserResponseDto> findPageAfterWithStatus(Long afterId, UserStatus status, Limit limit);
+
+    @Query("""
+            select new by.aresheg.restaurant.domain.model.auth.dto.response.UserResponseDto(u.id, u.email, u.fullName, u.phone, u.status)
+            from User u
+            order by u.id
+            """)
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<UserResponseDto> streamAllForExport();
+
+    @Query("""
+            select new by.aresheg.restaurant.domain.model.user.UserContactKeys(u.id, u.email, u.phone)
+            from User u
+            """)
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<UserContactKeys> streamAllContactKeys();
+
     boolean existsByEmail(String email);
 
     boolean existsByPhone(String phone);
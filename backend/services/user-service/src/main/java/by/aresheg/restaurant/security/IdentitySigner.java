@@ -0,0 +1,67 @@
+package by.aresheg.restaurant.security;
+
+import by.aresheg.restaurant.security.props.IdentityProperties;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Base64;
+
+/**
+ * Verifies the identity headers signed by the api-gateway. The payload layout must stay in sync
+ * with the signing side in the gateway.
+ */
+@Component
+public class IdentitySigner {
+
+    private static final String MISSING_SECRET_MESSAGE = "security.identity.secret must be set when signed identity headers are enabled";
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final ThreadLocal<Mac> mac;
+
+    // Fails the startup rather than every forwarded request when trusted headers are on but the secret is missing
+    public IdentitySigner(IdentityProperties identityProperties) {
+        String secret = identityProperties.getSecret();
+        boolean configured = secret != null && !secret.isBlank();
+        if (identityProperties.isTrusted() && !configured) {
+            throw new IllegalStateException(MISSING_SECRET_MESSAGE);
+        }
+
+        this.mac = configured ? macFor(secret) : null;
+    }
+
+    /**
+     * @return false for any headers while no secret is configured
+     */
+    public boolean verify(String userId, String email, String roles, long timestamp, String signature) {
+        if (mac == null) {
+            return false;
+        }
+
+        String payload = userId + '\n' + email + '\n' + roles + '\n' + timestamp;
+        byte[] expected = mac.get().doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        try {
+            return MessageDigest.isEqual(expected, Base64.getUrlDecoder().decode(signature));
+        } catch (IllegalArgumentException ex) {
+            return false;
+        }
+    }
+
+    private static ThreadLocal<Mac> macFor(String secret) {
+        SecretKeySpec key = new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+        return ThreadLocal.withInitial(() -> {
+            try {
+                Mac instance = Mac.getInstance(ALGORITHM);
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException ex) {
+                throw new IllegalStateException("Unable to initialize identity signer", ex);
+            }
+        });
+    }
+
+}
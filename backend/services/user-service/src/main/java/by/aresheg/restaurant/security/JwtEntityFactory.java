@@ -2,29 +2,36 @@ package by.aresheg.restaurant.security;
 
 import by.aresheg.restaurant.domain.model.role.Role;
 import by.aresheg.restaurant.domain.model.user.User;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import by.aresheg.restaurant.service.RoleRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
 
-import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Collectors;
 
+@Component
+@RequiredArgsConstructor
 public class JwtEntityFactory {
 
-    public static JwtEntity create(User user) {
+    private final RoleRegistry roleRegistry;
+
+    public JwtEntity create(User user) {
         return new JwtEntity(
                 user.getId(),
-                user.getFullName(),
+                user.getEmail(),
                 user.getPasswordHash(),
-                mapToGrantedAuthorities(new ArrayList<>(user.getRoles()))
+                roleRegistry.getAuthorities(user.getRoles().stream()
+                        .map(Role::getName)
+                        .toList())
         );
     }
 
-    private static List<GrantedAuthority> mapToGrantedAuthorities(List<Role> roles) {
-        return roles.stream()
-                .map(Role::getName)
-                .map(SimpleGrantedAuthority::new)
-                .collect(Collectors.toList());
+    public JwtEntity create(Long id, String email, List<String> roles) {
+        return new JwtEntity(
+                id,
+                email,
+                null,
+                roleRegistry.getAuthorities(roles == null ? List.of() : roles)
+        );
     }
 
 }
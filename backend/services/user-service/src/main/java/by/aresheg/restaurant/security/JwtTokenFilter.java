@@ -1,6 +1,7 @@
 package by.aresheg.restaurant.security;
 
 import by.aresheg.restaurant.domain.exception.UserNotFoundException;
+import by.aresheg.restaurant.domain.exception.auth.InvalidTokenException;
 import com.auth0.jwt.exceptions.JWTVerificationException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -26,12 +27,12 @@ public class JwtTokenFilter extends OncePerRequestFilter {
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
         String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
-        if (authHeader != null && authHeader.startsWith(TOKEN_PREFIX)) {
+        if (authHeader != null && authHeader.startsWith(TOKEN_PREFIX) && !isAuthenticated()) {
             String token = authHeader.substring(TOKEN_PREFIX.length());
             try {
                 Authentication authentication = jwtTokenProvider.authenticate(token);
                 SecurityContextHolder.getContext().setAuthentication(authentication);
-            } catch (JWTVerificationException | UserNotFoundException exception){
+            } catch (JWTVerificationException | InvalidTokenException | UserNotFoundException exception){
                 log.warn("JWT authentication failed for {}: {}", request.getRequestURI(), exception.getMessage());
                 SecurityContextHolder.clearContext();
             }
@@ -39,4 +40,8 @@ public class JwtTokenFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    private boolean isAuthenticated() {
+        return SecurityContextHolder.getContext().getAuthentication() != null;
+    }
+
 }
@@ -45,7 +45,15 @@ public class JwtTokenProvider {
 
     private final RoleMapper roleMapper;
 
+    private final VerifiedTokenCache verifiedTokenCache;
+
+    private final JwtEntityFactory jwtEntityFactory;
+
     public String generateAccessToken(Long id, String email, Set<Role> roles) {
+        return generateAccessToken(id, email, resolveRoles(roles));
+    }
+
+    public String generateAccessToken(Long id, String email, List<String> roles) {
         Instant issuedAt = Instant.now();
         Instant expiresAt = issuedAt.plus(jwtProperties.getAccess());
 
@@ -53,7 +61,7 @@ public class JwtTokenProvider {
                 .withJWTId(UUID.randomUUID().toString())
                 .withSubject(email)
                 .withClaim("userId", id)
-                .withClaim("roles", resolveRoles(roles))
+                .withClaim("roles", roles)
                 .withClaim("type", TOKEN_TYPE_ACCESS)
                 .withIssuer(jwtProperties.getIssuer())
                 .withAudience(jwtProperties.getAudience())
@@ -64,7 +72,7 @@ public class JwtTokenProvider {
 
     private List<String> resolveRoles(Set<Role> roles) {
         return roles.stream()
-                .map(String::valueOf)
+                .map(Role::getName)
                 .toList();
     }
 
@@ -108,9 +116,23 @@ public class JwtTokenProvider {
     }
 
     public Authentication authenticate(String token) {
-        String username = validateToken(token).getSubject();
-        UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+        DecodedJWT decodedJWT = verifiedTokenCache.get(token, this::validateToken);
+        UserDetails userDetails = jwtProperties.isStateless()
+                ? loadUserFromClaims(decodedJWT)
+                : userDetailsService.loadUserByUsername(decodedJWT.getSubject());
         return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
     }
 
+    private UserDetails loadUserFromClaims(DecodedJWT decodedJWT) {
+        if (!TOKEN_TYPE_ACCESS.equals(decodedJWT.getClaim("type").asString())) {
+            throw new InvalidTokenException("Access token is required");
+        }
+
+        return jwtEntityFactory.create(
+                decodedJWT.getClaim("userId").asLong(),
+                decodedJWT.getSubject(),
+                decodedJWT.getClaim("roles").asList(String.class)
+        );
+    }
+
 }
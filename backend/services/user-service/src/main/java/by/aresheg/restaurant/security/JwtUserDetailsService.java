@@ -5,21 +5,32 @@ import by.aresheg.restaurant.service.UserService;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
 @Service
 @RequiredArgsConstructor
-public class JwtUserDetailsService implements UserDetailsService {
+public class JwtUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserService userService;
 
+    private final JwtEntityFactory jwtEntityFactory;
+
     @Override
     @Transactional
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         User user = userService.getUserByEmail(email);
-        return JwtEntityFactory.create(user);
+        return jwtEntityFactory.create(user);
+    }
+
+    // Called by the authentication provider after a successful login when the stored hash uses outdated parameters
+    @Override
+    public UserDetails updatePassword(UserDetails userDetails, String newPasswordHash) {
+        JwtEntity jwtEntity = (JwtEntity) userDetails;
+        userService.updatePasswordHash(jwtEntity.getId(), newPasswordHash);
+        return new JwtEntity(jwtEntity.getId(), jwtEntity.getEmail(), newPasswordHash, jwtEntity.getAuthorities());
     }
 
 }
@@ -0,0 +1,53 @@
+package by.aresheg.restaurant.security;
+
+import by.aresheg.restaurant.security.props.PasswordHashingProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Picks the highest BCrypt strength whose hashing time stays within the configured target latency.
+ * Only the minimum strength is measured, every further round doubles the cost, so it is extrapolated.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PasswordStrengthCalibrator {
+
+    private static final String SAMPLE_PASSWORD = "Calibrati0n!";
+
+    private static final int WARMUP_ROUNDS = 2;
+
+    private static final int MEASURED_ROUNDS = 3;
+
+    private final PasswordHashingProperties properties;
+
+    public int calibrateBcryptStrength() {
+        int strength = properties.getMinStrength();
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            encoder.encode(SAMPLE_PASSWORD);
+        }
+
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            encoder.encode(SAMPLE_PASSWORD);
+        }
+        long hashNanos = (System.nanoTime() - startedAt) / MEASURED_ROUNDS;
+
+        long targetNanos = properties.getTargetLatency().toNanos();
+        while (strength < properties.getMaxStrength() && hashNanos * 2 <= targetNanos) {
+            strength++;
+            hashNanos *= 2;
+        }
+
+        log.info("Calibrated BCrypt strength {} (~{} ms per hash, target {} ms)",
+                strength, TimeUnit.NANOSECONDS.toMillis(hashNanos), properties.getTargetLatency().toMillis());
+        return strength;
+    }
+
+}
@@ -0,0 +1,85 @@
+package by.aresheg.restaurant.security;
+
+import by.aresheg.restaurant.security.props.IdentityProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Authenticates requests forwarded by the api-gateway from its signed identity headers.
+ * Requests without valid headers fall through to {@link JwtTokenFilter}.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class TrustedIdentityFilter extends OncePerRequestFilter {
+
+    public static final String USER_ID_HEADER = "X-Auth-User-Id";
+
+    public static final String USER_EMAIL_HEADER = "X-Auth-User-Email";
+
+    public static final String USER_ROLES_HEADER = "X-Auth-User-Roles";
+
+    public static final String TIMESTAMP_HEADER = "X-Auth-Timestamp";
+
+    public static final String SIGNATURE_HEADER = "X-Auth-Signature";
+
+    private final IdentityProperties identityProperties;
+
+    private final IdentitySigner identitySigner;
+
+    private final JwtEntityFactory jwtEntityFactory;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain) throws ServletException, IOException {
+        String signature = request.getHeader(SIGNATURE_HEADER);
+        if (signature != null) {
+            authenticate(request, signature);
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private void authenticate(HttpServletRequest request, String signature) {
+        String userId = request.getHeader(USER_ID_HEADER);
+        String email = request.getHeader(USER_EMAIL_HEADER);
+        String roles = request.getHeader(USER_ROLES_HEADER);
+        String timestampHeader = request.getHeader(TIMESTAMP_HEADER);
+        if (userId == null || email == null || roles == null || timestampHeader == null) {
+            log.warn("Incomplete identity headers for {}", request.getRequestURI());
+            return;
+        }
+
+        try {
+            long timestamp = Long.parseLong(timestampHeader);
+            if (Math.abs(System.currentTimeMillis() - timestamp) > identityProperties.getMaxAge().toMillis()) {
+                log.warn("Stale identity headers for {}", request.getRequestURI());
+                return;
+            }
+            if (!identitySigner.verify(userId, email, roles, timestamp, signature)) {
+                log.warn("Invalid identity signature for {}", request.getRequestURI());
+                return;
+            }
+
+            JwtEntity jwtEntity = jwtEntityFactory.create(Long.valueOf(userId), email, splitRoles(roles));
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(jwtEntity, null, jwtEntity.getAuthorities())
+            );
+        } catch (NumberFormatException exception) {
+            log.warn("Malformed identity headers for {}: {}", request.getRequestURI(), exception.getMessage());
+        }
+    }
+
+    private List<String> splitRoles(String roles) {
+        return roles.isEmpty() ? List.of() : Arrays.asList(roles.split(","));
+    }
+
+}
@@ -0,0 +1,131 @@
+package by.aresheg.restaurant.security;
+
+import by.aresheg.restaurant.security.props.JwtProperties;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Keeps already verified tokens keyed by their SHA-256 digest, so a token replayed during its lifetime
+ * skips signature verification and claims decoding. Entries never outlive the token's exp claim.
+ */
+@Component
+public class VerifiedTokenCache implements MeterBinder {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not supported", ex);
+        }
+    });
+
+    private final Map<ByteBuffer, Entry> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    private final boolean enabled;
+
+    private final int maxSize;
+
+    public VerifiedTokenCache(JwtProperties jwtProperties) {
+        this.enabled = jwtProperties.getCache().isEnabled();
+        this.maxSize = jwtProperties.getCache().getMaxSize();
+    }
+
+    public DecodedJWT get(String token, Function<String, DecodedJWT> verifier) {
+        if (!enabled) {
+            return verifier.apply(token);
+        }
+
+        ByteBuffer key = digest(token);
+        long now = System.currentTimeMillis();
+
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            if (entry.expiresAt() > now) {
+                hits.increment();
+                return entry.decodedJWT();
+            }
+            if (entries.remove(key, entry)) {
+                evictions.increment();
+            }
+        }
+
+        misses.increment();
+        DecodedJWT decodedJWT = verifier.apply(token);
+        if (decodedJWT.getExpiresAtAsInstant() != null) {
+            put(key, new Entry(decodedJWT, decodedJWT.getExpiresAtAsInstant().toEpochMilli()), now);
+        }
+        return decodedJWT;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void put(ByteBuffer key, Entry entry, long now) {
+        if (entries.size() >= maxSize) {
+            evict(now);
+        }
+        entries.put(key, entry);
+    }
+
+    // Drops expired entries first, then arbitrary ones until a tenth of the capacity is free again
+    private void evict(long now) {
+        int target = maxSize - Math.max(1, maxSize / 10);
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().expiresAt() <= now) {
+                iterator.remove();
+                evictions.increment();
+            }
+        }
+
+        iterator = entries.values().iterator();
+        while (entries.size() > target && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    private static ByteBuffer digest(String token) {
+        return ByteBuffer.wrap(SHA_256.get().digest(token.getBytes(StandardCharsets.US_ASCII)));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("jwt.verified.cache.requests", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("jwt.verified.cache.requests", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder("jwt.verified.cache.evictions", evictions, LongAdder::sum)
+                .register(registry);
+        Gauge.builder("jwt.verified.cache.size", entries, Map::size)
+                .register(registry);
+    }
+
+    private record Entry(DecodedJWT decodedJWT, long expiresAt) {
+    }
+
+}
@@ -0,0 +1,23 @@
+package by.aresheg.restaurant.security.props;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Data
+@ConfigurationProperties(prefix = "security.identity")
+public class IdentityProperties {
+
+    /**
+     * Trusts identity headers signed by the api-gateway instead of verifying the JWT again.
+     */
+    private boolean trusted;
+
+    private String secret;
+
+    private Duration maxAge = Duration.ofSeconds(30);
+
+}
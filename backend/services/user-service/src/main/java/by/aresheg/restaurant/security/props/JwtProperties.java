@@ -21,4 +21,21 @@ public class JwtProperties {
 
     private String audience;
 
+    /**
+     * Builds the request principal from the verified access token claims
+     * instead of loading the user from the database on every request.
+     */
+    private boolean stateless;
+
+    private Cache cache = new Cache();
+
+    @Data
+    public static class Cache {
+
+        private boolean enabled = true;
+
+        private int maxSize = 10_000;
+
+    }
+
 }
@@ -0,0 +1,27 @@
+package by.aresheg.restaurant.security.props;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Component
+@Data
+@ConfigurationProperties(prefix = "security.password.hashing")
+public class PasswordHashingProperties {
+
+    private int poolSize = Runtime.getRuntime().availableProcessors();
+
+    private int queueCapacity = Runtime.getRuntime().availableProcessors() * 4;
+
+    /**
+     * Time a single hash should take on this hardware, the BCrypt strength is calibrated against it at startup.
+     */
+    private Duration targetLatency = Duration.ofMillis(250);
+
+    private int minStrength = 10;
+
+    private int maxStrength = 16;
+
+}
@@ -0,0 +1,9 @@
+package by.aresheg.restaurant.service;
+
+import by.aresheg.restaurant.domain.model.auth.dto.response.AvailabilityResponseDto;
+
+public interface AvailabilityService {
+
+    AvailabilityResponseDto checkAvailability(String email, String phone);
+
+}
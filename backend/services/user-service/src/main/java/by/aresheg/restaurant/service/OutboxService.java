@@ -0,0 +1,12 @@
+package by.aresheg.restaurant.service;
+
+import by.aresheg.restaurant.event.UserChangedEvent;
+import by.aresheg.restaurant.event.UserRegisteredEvent;
+
+public interface OutboxService {
+
+    void saveUserRegisteredEvent(UserRegisteredEvent event);
+
+    void saveUserChangedEvent(UserChangedEvent event);
+
+}
@@ -0,0 +1,126 @@
+package by.aresheg.restaurant.service;
+
+import by.aresheg.restaurant.domain.exception.RoleNotFoundException;
+import by.aresheg.restaurant.domain.model.role.Role;
+import by.aresheg.restaurant.event.UserChangedEvent;
+import by.aresheg.restaurant.repository.RoleRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Immutable snapshot of the roles table, loaded once at startup and replaced on {@link #refresh()}.
+ * Roles are a small fixed set, so registration and authority resolution never have to query them.
+ * {@link #refreshEverywhere()} broadcasts the refresh over the user-changes topic to the other instances.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RoleRegistry {
+
+    private static final int AUTHORITIES_CACHE_LIMIT = 64;
+
+    private final RoleRepository roleRepository;
+
+    private final EntityManager entityManager;
+
+    private final OutboxService outboxService;
+
+    private volatile Snapshot snapshot;
+
+    @PostConstruct
+    public void refresh() {
+        // Roles edited directly in the database are not seen by the second-level cache
+        entityManager.getEntityManagerFactory().getCache().evict(Role.class);
+
+        List<Role> roles = roleRepository.findAll();
+        snapshot = new Snapshot(
+                roles.stream().collect(Collectors.toUnmodifiableMap(Role::getName, Function.identity())),
+                roles.stream().collect(Collectors.toUnmodifiableMap(Role::getId, Function.identity())),
+                roles.stream().collect(Collectors.toUnmodifiableMap(Role::getName, role -> new SimpleGrantedAuthority(role.getName()))),
+                new ConcurrentHashMap<>()
+        );
+        log.info("Loaded {} roles into the registry", roles.size());
+    }
+
+    @Transactional
+    public void refreshEverywhere() {
+        refresh();
+        outboxService.saveUserChangedEvent(UserChangedEvent.builder()
+                .type(UserChangedEvent.Type.ROLES_REFRESHED)
+                .build()
+        );
+    }
+
+    public Collection<Role> getRoles() {
+        return snapshot.byName().values();
+    }
+
+    public Role getByName(String name) {
+        Role role = snapshot.byName().get(name);
+        if (role == null) {
+            throw new RoleNotFoundException(String.format("Role '%s' not found", name));
+        }
+        return role;
+    }
+
+    public Role getById(Long id) {
+        Role role = snapshot.byId().get(id);
+        if (role == null) {
+            throw new RoleNotFoundException(String.format("Role with id '%s' not found", id));
+        }
+        return role;
+    }
+
+    /**
+     * @return a managed reference for associations, resolved without a query
+     */
+    public Role getReference(String name) {
+        return entityManager.getReference(Role.class, getByName(name).getId());
+    }
+
+    /**
+     * Resolves role names into a shared immutable authority set. Names unknown to the registry grant nothing.
+     */
+    public Set<GrantedAuthority> getAuthorities(Collection<String> roleNames) {
+        Snapshot current = snapshot;
+        Set<String> key = Set.copyOf(roleNames);
+
+        Set<GrantedAuthority> authorities = current.authoritiesCache().get(key);
+        if (authorities != null) {
+            return authorities;
+        }
+
+        authorities = key.stream()
+                .map(current.authorities()::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toUnmodifiableSet());
+        if (current.authoritiesCache().size() < AUTHORITIES_CACHE_LIMIT) {
+            current.authoritiesCache().putIfAbsent(key, authorities);
+        }
+        return authorities;
+    }
+
+    private record Snapshot(
+            Map<String, Role> byName,
+            Map<Long, Role> byId,
+            Map<String, GrantedAuthority> authorities,
+            Map<Set<String>, Set<GrantedAuthority>> authoritiesCache
+    ) {
+    }
+
+}
@@ -0,0 +1,39 @@
+package by.aresheg.restaurant.service;
+
+import by.aresheg.restaurant.domain.model.user.User;
+import by.aresheg.restaurant.event.UserChangedEvent;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.cache.spi.CacheImplementor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Drops the second-level cache entries of a user changed on any instance.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserCacheInvalidator {
+
+    private static final String ROLES_COLLECTION = User.class.getName() + ".roles";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public void evict(UserChangedEvent event) {
+        CacheImplementor cache = entityManagerFactory.unwrap(SessionFactory.class)
+                .getCache()
+                .unwrap(CacheImplementor.class);
+
+        cache.evictEntityData(User.class, event.userId());
+        cache.evictCollectionData(ROLES_COLLECTION, event.userId());
+        // Natural ids cannot be evicted one by one; a stale email -> id mapping would hide a re-registered user
+        if (event.type() == UserChangedEvent.Type.DELETED) {
+            cache.evictNaturalIdData(User.class);
+        }
+
+        log.debug("Evicted cached user {} after {}", event.userId(), event.type());
+    }
+
+}
@@ -0,0 +1,199 @@
+package by.aresheg.restaurant.service;
+
+import by.aresheg.restaurant.config.props.AvailabilityProperties;
+import by.aresheg.restaurant.domain.model.user.UserContactKeys;
+import by.aresheg.restaurant.event.UserChangedEvent;
+import by.aresheg.restaurant.repository.UserRepository;
+import by.aresheg.restaurant.shared.bloom.CountingBloomFilter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * Counting Bloom filters over every registered email and phone, so availability checks for unused values
+ * never reach the database. Values are held exactly as stored, matching the unique constraints and the
+ * exact lookups that confirm a possible positive. Rebuilt from the users table once the user-changes listener
+ * is positioned and kept current from that broadcast; until the rebuild finishes every value is reported as
+ * possibly taken.
+ */
+@Component
+@Slf4j
+public class UserContactIndex implements MeterBinder {
+
+    private final UserRepository userRepository;
+
+    private final CountingBloomFilter emails;
+
+    private final CountingBloomFilter phones;
+
+    private final Stats emailStats = new Stats();
+
+    private final Stats phoneStats = new Stats();
+
+    // The phone counted for each indexed user, so a redelivered or already reflected change is a no-op
+    private final Map<Long, String> indexedPhones = new HashMap<>();
+
+    private volatile boolean ready;
+
+    public UserContactIndex(UserRepository userRepository, AvailabilityProperties availabilityProperties) {
+        this.userRepository = userRepository;
+        this.emails = new CountingBloomFilter(availabilityProperties.getExpectedInsertions(), availabilityProperties.getFalsePositiveRate());
+        this.phones = new CountingBloomFilter(availabilityProperties.getExpectedInsertions(), availabilityProperties.getFalsePositiveRate());
+    }
+
+    /**
+     * Called by the user-changes listener once its position is fixed and before it delivers anything, so every
+     * change the snapshot misses is delivered afterwards.
+     */
+    @Transactional(readOnly = true)
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        long users = 0;
+        try (Stream<UserContactKeys> keys = userRepository.streamAllContactKeys()) {
+            for (UserContactKeys key : (Iterable<UserContactKeys>) keys::iterator) {
+                index(key.id(), key.email(), key.phone());
+                users++;
+            }
+            ready = true;
+            log.info("Availability filters built from {} users in {} ms", users, (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException ex) {
+            log.error("Failed to build availability filters, checks will go to the database", ex);
+        }
+    }
+
+    public synchronized void apply(UserChangedEvent event) {
+        switch (event.type()) {
+            case CREATED -> index(event.userId(), event.email(), event.phone());
+            case UPDATED -> {
+                // Add before removing, so the new phone is never reported as free
+                if (indexedPhones.containsKey(event.userId())) {
+                    String indexedPhone = indexedPhones.get(event.userId());
+                    if (!Objects.equals(indexedPhone, event.phone())) {
+                        add(null, event.phone());
+                        remove(null, indexedPhone);
+                        indexedPhones.put(event.userId(), event.phone());
+                    }
+                }
+            }
+            case DELETED -> {
+                if (indexedPhones.containsKey(event.userId())) {
+                    remove(event.email(), indexedPhones.remove(event.userId()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts a user's email and phone unless that user is already indexed. Registration calls it after its
+     * commit, so the new values are reported as taken before the broadcast CREATED comes back.
+     */
+    public synchronized void index(Long userId, String email, String phone) {
+        if (!indexedPhones.containsKey(userId)) {
+            indexedPhones.put(userId, phone);
+            add(email, phone);
+        }
+    }
+
+    public boolean mightContainEmail(String email) {
+        return mightContain(emails, emailStats, email);
+    }
+
+    public boolean mightContainPhone(String phone) {
+        return mightContain(phones, phoneStats, phone);
+    }
+
+    // A possible positive the database did not confirm
+    public void recordEmailFalsePositive() {
+        emailStats.falsePositives.increment();
+    }
+
+    public void recordPhoneFalsePositive() {
+        phoneStats.falsePositives.increment();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    private boolean mightContain(CountingBloomFilter filter, Stats stats, String value) {
+        if (!ready) {
+            return true;
+        }
+
+        boolean mightContain = filter.mightContain(value);
+        (mightContain ? stats.positives : stats.negatives).increment();
+        return mightContain;
+    }
+
+    private void add(String email, String phone) {
+        if (email != null) {
+            emails.add(email);
+        }
+        if (phone != null) {
+            phones.add(phone);
+        }
+    }
+
+    // Before the rebuild has seen a row its counters are not there yet, removing it would take them from other values
+    private void remove(String email, String phone) {
+        if (!ready) {
+            return;
+        }
+
+        if (email != null) {
+            emails.remove(email);
+        }
+        if (phone != null) {
+            phones.remove(phone);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        bind(registry, "email", emailStats);
+        bind(registry, "phone", phoneStats);
+    }
+
+    private static void bind(MeterRegistry registry, String field, Stats stats) {
+        FunctionCounter.builder("users.availability.filter.checks", stats.negatives, LongAdder::sum)
+                .tags("field", field, "result", "negative")
+                .register(registry);
+        FunctionCounter.builder("users.availability.filter.checks", stats.positives, LongAdder::sum)
+                .tags("field", field, "result", "positive")
+                .register(registry);
+        FunctionCounter.builder("users.availability.filter.false.positives", stats.falsePositives, LongAdder::sum)
+                .tag("field", field)
+                .register(registry);
+        Gauge.builder("users.availability.filter.false.positive.rate", stats, Stats::falsePositiveRate)
+                .tag("field", field)
+                .register(registry);
+    }
+
+    private static final class Stats {
+
+        private final LongAdder negatives = new LongAdder();
+
+        private final LongAdder positives = new LongAdder();
+
+        private final LongAdder falsePositives = new LongAdder();
+
+        // Share of the values not taken that the filter still let through; negatives are never wrong
+        private double falsePositiveRate() {
+            long falsePositives = this.falsePositives.sum();
+            long free = falsePositives + negatives.sum();
+            return free == 0 ? 0 : (double) falsePositives / free;
+        }
+
+    }
+
+}
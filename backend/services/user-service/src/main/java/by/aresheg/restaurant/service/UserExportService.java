@@ -0,0 +1,12 @@
+package by.aresheg.restaurant.service;
+
+import by.aresheg.restaurant.domain.model.user.ExportFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface UserExportService {
+
+    void export(ExportFormat format, OutputStream out) throws IOException;
+
+}
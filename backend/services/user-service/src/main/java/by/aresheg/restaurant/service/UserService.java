@@ -2,8 +2,11 @@ package by.aresheg.restaurant.service;
 
 import by.aresheg.restaurant.domain.model.auth.dto.request.ChangePasswordRequestDto;
 import by.aresheg.restaurant.domain.model.auth.dto.request.UpdateUserRequestDto;
+import by.aresheg.restaurant.domain.model.auth.dto.response.UserBatchResponseDto;
 import by.aresheg.restaurant.domain.model.auth.dto.response.UserResponseDto;
 import by.aresheg.restaurant.domain.model.user.User;
+import by.aresheg.restaurant.domain.model.user.UserStatus;
+import by.aresheg.restaurant.shared.pagination.CursorPage;
 
 import java.util.List;
 
@@ -11,14 +14,20 @@ public interface UserService {
 
     User getUserById(Long userId);
 
+    UserResponseDto getUserResponseById(Long userId);
+
     User getUserByEmail(String email);
 
-    List<UserResponseDto> getAllUsers();
+    UserBatchResponseDto getUsersByIds(List<Long> userIds);
+
+    CursorPage<UserResponseDto> getUsers(String cursor, Integer size, UserStatus status);
 
     UserResponseDto updateUser(Long userId, UpdateUserRequestDto request);
 
     void updatePassword(Long id, ChangePasswordRequestDto request);
 
+    void updatePasswordHash(Long userId, String passwordHash);
+
     void deleteUser(Long userId);
 
 }
@@ -1,31 +1,40 @@
 package by.aresheg.restaurant.service.impl;
 
-import by.aresheg.restaurant.domain.exception.RoleNotFoundException;
 import by.aresheg.restaurant.domain.model.auth.dto.request.RegistrationRequestDto;
 import by.aresheg.restaurant.domain.model.auth.dto.response.RegistrationResponseDto;
 import by.aresheg.restaurant.domain.model.auth.dto.auth.JwtRequest;
 import by.aresheg.restaurant.domain.model.auth.dto.auth.JwtResponse;
 import by.aresheg.restaurant.domain.exception.EmailAlreadyExistsException;
 import by.aresheg.restaurant.domain.exception.PhoneAlreadyExistsException;
-import by.aresheg.restaurant.domain.exception.UserNotFoundException;
 import by.aresheg.restaurant.domain.model.role.Role;
 import by.aresheg.restaurant.domain.model.user.UserStatus;
+import by.aresheg.restaurant.event.UserChangedEvent;
 import by.aresheg.restaurant.event.UserRegisteredEvent;
 import by.aresheg.restaurant.mapper.UserMapper;
 import by.aresheg.restaurant.domain.model.user.User;
-import by.aresheg.restaurant.repository.RoleRepository;
 import by.aresheg.restaurant.repository.UserRepository;
 import by.aresheg.restaurant.service.AuthService;
+import by.aresheg.restaurant.service.OutboxService;
+import by.aresheg.restaurant.service.RoleRegistry;
+import by.aresheg.restaurant.service.UserContactIndex;
+import by.aresheg.restaurant.security.JwtEntity;
 import by.aresheg.restaurant.security.JwtTokenProvider;
-import by.aresheg.restaurant.service.kafka.KafkaEventProducer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.List;
+import java.util.Locale;
 import java.util.UUID;
 
 import static by.aresheg.restaurant.domain.model.role.DefaultRoles.USER;
@@ -39,27 +48,34 @@ public class AuthServiceImpl implements AuthService {
 
     private final UserRepository userRepository;
 
-    private final RoleRepository roleRepository;
+    private final RoleRegistry roleRegistry;
 
     private final JwtTokenProvider jwtTokenProvider;
 
     private final UserMapper userMapper;
 
-    private final KafkaEventProducer kafkaEventProducer;
+    private final OutboxService outboxService;
 
     private final PasswordEncoder passwordEncoder;
 
+    private final UserContactIndex userContactIndex;
+
     @Override
     public JwtResponse login(JwtRequest loginRequest) {
-        log.info("Registration attempt for email: {}", loginRequest.email());
+        log.info("Login attempt for email: {}", loginRequest.email());
 
-        authenticationManager.authenticate(new UsernamePasswordAuthenticationToken(loginRequest.email(), loginRequest.password()));
-        User user = userRepository.findByEmail(loginRequest.email())
-                .orElseThrow(() -> new UserNotFoundException(String.format("User not found with email: %s", loginRequest.email())));
+        // The principal is loaded once by the authentication provider, tokens are minted from it without another lookup
+        Authentication authentication = authenticationManager.authenticate(
+                new UsernamePasswordAuthenticationToken(loginRequest.email(), loginRequest.password())
+        );
+        JwtEntity principal = (JwtEntity) authentication.getPrincipal();
+        List<String> roles = principal.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
 
         return JwtResponse.builder()
-                .accessToken(jwtTokenProvider.generateAccessToken(user.getId(), user.getEmail(), user.getRoles()))
-                .refreshToken(jwtTokenProvider.generateRefreshToken(user.getId(), user.getEmail()))
+                .accessToken(jwtTokenProvider.generateAccessToken(principal.getId(), principal.getEmail(), roles))
+                .refreshToken(jwtTokenProvider.generateRefreshToken(principal.getId(), principal.getEmail()))
                 .build();
     }
 
@@ -71,43 +87,82 @@ public class AuthServiceImpl implements AuthService {
     @Override
     @Transactional
     public RegistrationResponseDto register(RegistrationRequestDto request) {
-        checkUserExists(request);
-
-        Role role = roleRepository
-                .findByName(ROLE_USER.name())
-                .orElseThrow(() -> new RoleNotFoundException(String.format("Role '%s' not found in database", USER.name())));
+        Role role = roleRegistry.getReference(USER.name());
 
         User user = userMapper.toEntity(request);
         user.setPasswordHash(passwordEncoder.encode(request.password()));
         user.getRoles().add(role);
         user.setStatus(UserStatus.PENDING);
 
-        userRepository.save(user);
+        // The unique constraints are the real arbiter, so insert right away instead of checking first
+        try {
+            userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException ex) {
+            throw translateUniqueViolation(ex, request);
+        }
 
         String verificationToken = UUID.randomUUID().toString();
-        kafkaEventProducer.sendUserRegisteredEvent(
+        outboxService.saveUserRegisteredEvent(
                 UserRegisteredEvent.builder()
                         .email(user.getEmail())
                         .fullName(user.getFullName())
                         .verificationToken(verificationToken)
                         .build()
         );
+        outboxService.saveUserChangedEvent(
+                UserChangedEvent.builder()
+                        .userId(user.getId())
+                        .email(user.getEmail())
+                        .phone(user.getPhone())
+                        .type(UserChangedEvent.Type.CREATED)
+                        .build()
+        );
+        indexAfterCommit(user);
 
         return RegistrationResponseDto.builder()
                 .email(user.getEmail())
                 .build();
     }
 
-    private void checkUserExists(RegistrationRequestDto request) {
-        if (userRepository.existsByEmail(request.email()))
-            throw new EmailAlreadyExistsException(String.format(
+    // A rolled back registration must not stay counted, so the index only sees the user once it is committed
+    private void indexAfterCommit(User user) {
+        Long userId = user.getId();
+        String email = user.getEmail();
+        String phone = user.getPhone();
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            userContactIndex.index(userId, email, phone);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                userContactIndex.index(userId, email, phone);
+            }
+        });
+    }
+
+    private RuntimeException translateUniqueViolation(DataIntegrityViolationException ex, RegistrationRequestDto request) {
+        String constraintName = ex.getCause() instanceof ConstraintViolationException violation
+                ? violation.getConstraintName()
+                : null;
+
+        if (violates(constraintName, User.EMAIL_UNIQUE_CONSTRAINT))
+            return new EmailAlreadyExistsException(String.format(
                     "Email '%s' already exists", request.email()
-            ));
+            ), ex);
 
-        if (userRepository.existsByPhone(request.phone()))
-            throw new PhoneAlreadyExistsException(String.format(
+        if (violates(constraintName, User.PHONE_UNIQUE_CONSTRAINT))
+            return new PhoneAlreadyExistsException(String.format(
                     "Phone '%s' already exists", request.phone()
-            ));
+            ), ex);
+
+        return ex;
+    }
+
+    // PostgreSQL reports the bare constraint name, H2 the backing index qualified by schema and suffixed
+    private static boolean violates(String reportedName, String constraintName) {
+        return reportedName != null && reportedName.toLowerCase(Locale.ROOT).contains(constraintName);
     }
 
 }
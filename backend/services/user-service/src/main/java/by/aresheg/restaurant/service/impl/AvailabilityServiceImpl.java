@@ -0,0 +1,51 @@
+package by.aresheg.restaurant.service.impl;
+
+import by.aresheg.restaurant.domain.model.auth.dto.response.AvailabilityResponseDto;
+import by.aresheg.restaurant.repository.UserRepository;
+import by.aresheg.restaurant.service.AvailabilityService;
+import by.aresheg.restaurant.service.UserContactIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+@Service
+@RequiredArgsConstructor
+public class AvailabilityServiceImpl implements AvailabilityService {
+
+    private final UserRepository userRepository;
+
+    private final UserContactIndex userContactIndex;
+
+    @Override
+    public AvailabilityResponseDto checkAvailability(String email, String phone) {
+        return new AvailabilityResponseDto(
+                email == null ? null : isEmailAvailable(email),
+                phone == null ? null : isPhoneAvailable(phone)
+        );
+    }
+
+    // Only values the filter might hold are looked up; a definite negative is free without a query
+    private boolean isEmailAvailable(String email) {
+        if (!userContactIndex.mightContainEmail(email)) {
+            return true;
+        }
+
+        boolean taken = userRepository.existsByEmail(email);
+        if (!taken && userContactIndex.isReady()) {
+            userContactIndex.recordEmailFalsePositive();
+        }
+        return !taken;
+    }
+
+    private boolean isPhoneAvailable(String phone) {
+        if (!userContactIndex.mightContainPhone(phone)) {
+            return true;
+        }
+
+        boolean taken = userRepository.existsByPhone(phone);
+        if (!taken && userContactIndex.isReady()) {
+            userContactIndex.recordPhoneFalsePositive();
+        }
+        return !taken;
+    }
+
+}
@@ -0,0 +1,54 @@
+package by.aresheg.restaurant.service.impl;
+
+import by.aresheg.restaurant.domain.model.outbox.OutboxEvent;
+import by.aresheg.restaurant.domain.model.outbox.OutboxEventType;
+import by.aresheg.restaurant.event.UserChangedEvent;
+import by.aresheg.restaurant.event.UserRegisteredEvent;
+import by.aresheg.restaurant.repository.OutboxEventRepository;
+import by.aresheg.restaurant.service.OutboxService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+public class OutboxServiceImpl implements OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void saveUserRegisteredEvent(UserRegisteredEvent event) {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .eventType(OutboxEventType.USER_REGISTERED)
+                .aggregateId(event.email())
+                .payload(toJson(event))
+                .build()
+        );
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void saveUserChangedEvent(UserChangedEvent event) {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .eventType(OutboxEventType.USER_CHANGED)
+                .aggregateId(event.key())
+                .payload(toJson(event))
+                .build()
+        );
+    }
+
+    private String toJson(Object event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Unable to serialize outbox event", ex);
+        }
+    }
+
+}
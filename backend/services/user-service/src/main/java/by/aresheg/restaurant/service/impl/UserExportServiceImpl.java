@@ -0,0 +1,133 @@
+package by.aresheg.restaurant.service.impl;
+
+import by.aresheg.restaurant.domain.model.auth.dto.response.UserResponseDto;
+import by.aresheg.restaurant.domain.model.user.ExportFormat;
+import by.aresheg.restaurant.repository.UserRepository;
+import by.aresheg.restaurant.service.UserExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams users straight from a database cursor to the response. Rows are read as DTO projections,
+ * so nothing accumulates in the persistence context, and the servlet output stream blocks on slow
+ * clients, which in turn stops the cursor from advancing.
+ */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class UserExportServiceImpl implements UserExportService {
+
+    private static final int FLUSH_EVERY = 100;
+
+    private static final String CSV_HEADER = "id,email,fullName,phone,status";
+
+    private final UserRepository userRepository;
+
+    private final ObjectMapper objectMapper;
+
+    // The cursor only streams inside a transaction: PostgreSQL ignores the fetch size in autocommit mode
+    @Override
+    @Transactional(readOnly = true)
+    public void export(ExportFormat format, OutputStream out) throws IOException {
+        try (Stream<UserResponseDto> users = userRepository.streamAllForExport()) {
+            long rows = switch (format) {
+                case NDJSON -> writeNdjson(users.iterator(), out);
+                case CSV -> writeCsv(users.iterator(), out);
+            };
+            log.info("Exported {} users as {}", rows, format);
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        }
+    }
+
+    private long writeNdjson(Iterator<UserResponseDto> users, OutputStream out) throws IOException {
+        long rows = 0;
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+            while (users.hasNext()) {
+                generator.writeObject(users.next());
+                if (++rows % FLUSH_EVERY == 0) {
+                    generator.flush();
+                }
+            }
+            generator.writeRaw('\n');
+        }
+        out.flush();
+        return rows;
+    }
+
+    private long writeCsv(Iterator<UserResponseDto> users, OutputStream out) throws IOException {
+        long rows = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (users.hasNext()) {
+            UserResponseDto user = users.next();
+            writer.write(String.valueOf(user.id()));
+            writer.write(',');
+            writeCsvField(writer, user.email());
+            writer.write(',');
+            writeCsvField(writer, user.fullName());
+            writer.write(',');
+            writeCsvField(writer, user.phone());
+            writer.write(',');
+            writeCsvField(writer, user.status() != null ? user.status().name() : null);
+            writer.write('\n');
+            if (++rows % FLUSH_EVERY == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return rows;
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        if (isFormula(value)) {
+            // Spreadsheets evaluate such cells; the leading quote makes them plain text (OWASP CSV injection)
+            value = "'" + value;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    // Signed numbers such as E.164 phones start with + or - too, but cannot carry a formula
+    private static boolean isFormula(String value) {
+        if (value.isEmpty() || "=+-@\t\r".indexOf(value.charAt(0)) < 0) {
+            return false;
+        }
+        if (value.length() == 1 || (value.charAt(0) != '+' && value.charAt(0) != '-')) {
+            return true;
+        }
+        for (int i = 1; i < value.length(); i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
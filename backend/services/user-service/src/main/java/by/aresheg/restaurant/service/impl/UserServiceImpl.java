@@ -4,17 +4,32 @@ import by.aresheg.restaurant.domain.exception.InvalidPasswordException;
 import by.aresheg.restaurant.domain.model.auth.dto.request.ChangePasswordRequestDto;
 import by.aresheg.restaurant.domain.model.auth.dto.request.UpdateUserRequestDto;
 import by.aresheg.restaurant.domain.model.auth.dto.response.UserResponseDto;
+import by.aresheg.restaurant.config.props.PaginationProperties;
+import by.aresheg.restaurant.config.props.UserBatchProperties;
+import by.aresheg.restaurant.domain.exception.BatchTooLargeException;
+import by.aresheg.restaurant.domain.model.auth.dto.response.UserBatchResponseDto;
+import by.aresheg.restaurant.domain.model.auth.dto.response.UserContactDto;
+import by.aresheg.restaurant.domain.model.user.UserStatus;
+import by.aresheg.restaurant.event.UserChangedEvent;
+import by.aresheg.restaurant.service.OutboxService;
 import by.aresheg.restaurant.service.UserService;
 import by.aresheg.restaurant.domain.exception.UserNotFoundException;
 import by.aresheg.restaurant.mapper.UserMapper;
 import by.aresheg.restaurant.domain.model.user.User;
 import by.aresheg.restaurant.repository.UserRepository;
+import by.aresheg.restaurant.shared.pagination.CursorPage;
+import by.aresheg.restaurant.shared.pagination.Cursors;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -24,6 +39,12 @@ public class UserServiceImpl implements UserService {
 
     private final UserMapper userMapper;
 
+    private final PaginationProperties paginationProperties;
+
+    private final UserBatchProperties userBatchProperties;
+
+    private final OutboxService outboxService;
+
     public User getUserById(Long userId) {
         return userRepository.findById(userId).
                 orElseThrow(() -> new UserNotFoundException(
@@ -31,27 +52,82 @@ public class UserServiceImpl implements UserService {
                 ));
     }
 
+    @Override
+    public UserResponseDto getUserResponseById(Long userId) {
+        return userRepository.findDtoById(userId)
+                .orElseThrow(() -> new UserNotFoundException(
+                        String.format("User not found with id: %s", userId)
+                ));
+    }
+
     @Override
     public User getUserByEmail(String email) {
-       return userRepository.findByEmail(email)
+       return userRepository.findCachedByEmail(email)
                .orElseThrow(() -> new UserNotFoundException(String.format("User not found with email: %s", email)));
     }
 
     @Override
-    public List<UserResponseDto> getAllUsers() {
-        return userRepository.findAll()
-                .stream()
-                .map((userMapper::toDto))
-                .collect(Collectors.toList());
+    public UserBatchResponseDto getUsersByIds(List<Long> userIds) {
+        Set<Long> ids = new LinkedHashSet<>(userIds);
+        if (ids.size() > userBatchProperties.getMaxSize()) {
+            throw new BatchTooLargeException(
+                    String.format("At most %d ids can be requested at once", userBatchProperties.getMaxSize())
+            );
+        }
+
+        Map<Long, UserContactDto> found = new HashMap<>();
+        for (UserContactDto contact : userRepository.findContactsByIdIn(ids)) {
+            found.put(contact.id(), contact);
+        }
+
+        List<UserContactDto> users = new ArrayList<>(found.size());
+        List<Long> missingIds = new ArrayList<>();
+        for (Long id : ids) {
+            UserContactDto contact = found.get(id);
+            if (contact != null) {
+                users.add(contact);
+            } else {
+                missingIds.add(id);
+            }
+        }
+
+        return new UserBatchResponseDto(users, missingIds);
+    }
+
+    @Override
+    public CursorPage<UserResponseDto> getUsers(String cursor, Integer size, UserStatus status) {
+        long afterId = Cursors.decodeId(cursor);
+        int pageSize = paginationProperties.resolveSize(size);
+
+        // One extra row tells whether another page exists without a count query
+        Limit limit = Limit.of(pageSize + 1);
+        List<UserResponseDto> users = status == null
+                ? userRepository.findPageAfter(afterId, limit)
+                : userRepository.findPageAfterWithStatus(afterId, status, limit);
+
+        boolean hasNext = users.size() > pageSize;
+        List<UserResponseDto> page = hasNext ? users.subList(0, pageSize) : users;
+        String nextCursor = hasNext ? Cursors.encodeId(page.get(page.size() - 1).id()) : null;
+
+        return new CursorPage<>(List.copyOf(page), nextCursor);
     }
 
     @Override
     @Transactional
     public UserResponseDto updateUser(Long userId, UpdateUserRequestDto request) {
         User user = getUserById(userId);
+        String previousPhone = user.getPhone();
 
         userMapper.updateUserFromDto(request, user);
         User updatedUser = userRepository.save(user);
+        outboxService.saveUserChangedEvent(UserChangedEvent.builder()
+                .userId(updatedUser.getId())
+                .email(updatedUser.getEmail())
+                .phone(updatedUser.getPhone())
+                .previousPhone(previousPhone)
+                .type(UserChangedEvent.Type.UPDATED)
+                .build()
+        );
 
         return userMapper.toDto(updatedUser);
     }
@@ -66,6 +142,16 @@ public class UserServiceImpl implements UserService {
 
         user.setPasswordHash(request.newPassword());
         userRepository.save(user);
+        publishChange(user, UserChangedEvent.Type.UPDATED);
+    }
+
+    @Override
+    @Transactional
+    public void updatePasswordHash(Long userId, String passwordHash) {
+        User user = getUserById(userId);
+        user.setPasswordHash(passwordHash);
+        userRepository.save(user);
+        publishChange(user, UserChangedEvent.Type.UPDATED);
     }
 
     @Override
@@ -73,6 +159,18 @@ public class UserServiceImpl implements UserService {
     public void deleteUser(Long userId) {
         User user = getUserById(userId);
         userRepository.delete(user);
+        publishChange(user, UserChangedEvent.Type.DELETED);
+    }
+
+    // Written to the outbox in the same transaction, so other instances hear about every committed change
+    private void publishChange(User user, UserChangedEvent.Type type) {
+        outboxService.saveUserChangedEvent(UserChangedEvent.builder()
+                .userId(user.getId())
+                .email(user.getEmail())
+                .phone(user.getPhone())
+                .type(type)
+                .build()
+        );
     }
 
 }
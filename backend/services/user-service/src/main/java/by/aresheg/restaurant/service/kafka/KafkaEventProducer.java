@@ -1,9 +1,14 @@
 package by.aresheg.restaurant.service.kafka;
 
+import by.aresheg.restaurant.event.UserChangedEvent;
 import by.aresheg.restaurant.event.UserRegisteredEvent;
 
+import java.util.concurrent.CompletableFuture;
+
 public interface KafkaEventProducer {
 
-    void sendUserRegisteredEvent(UserRegisteredEvent event);
+    CompletableFuture<Void> sendUserRegisteredEvent(UserRegisteredEvent event);
+
+    CompletableFuture<Void> sendUserChangedEvent(UserChangedEvent event);
 
 }
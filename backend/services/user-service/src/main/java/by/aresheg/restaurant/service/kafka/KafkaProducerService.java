@@ -1,23 +1,55 @@
 package by.aresheg.restaurant.service.kafka;
 
+import by.aresheg.restaurant.event.UserChangedEvent;
 import by.aresheg.restaurant.event.UserRegisteredEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
+
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class KafkaProducerService implements KafkaEventProducer {
 
     private final KafkaTemplate<String, Object> kafkaTemplate;
 
+    private final MeterRegistry meterRegistry;
+
     @Value("${app.kafka.topic}")
     private String kafkaTopic;
 
+    @Value("${app.kafka.user-changes-topic}")
+    private String userChangesTopic;
+
+    // Keyed by email, so all events of a user land on the same partition in order
+    @Override
+    public CompletableFuture<Void> sendUserRegisteredEvent(UserRegisteredEvent event) {
+        return send(kafkaTopic, event.email(), event);
+    }
+
     @Override
-    public void sendUserRegisteredEvent(UserRegisteredEvent event) {
-        kafkaTemplate.send(kafkaTopic, event);
+    public CompletableFuture<Void> sendUserChangedEvent(UserChangedEvent event) {
+        return send(userChangesTopic, event.key(), event);
+    }
+
+    private CompletableFuture<Void> send(String topic, String key, Object event) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        return kafkaTemplate.send(topic, key, event)
+                .whenComplete((result, ex) -> {
+                    sample.stop(meterRegistry.timer("kafka.producer.send",
+                            "topic", topic,
+                            "result", ex == null ? "success" : "failure"));
+                    if (ex != null) {
+                        log.warn("Failed to send event to topic {}: {}", topic, ex.getMessage());
+                    }
+                })
+                .thenApply(result -> null);
     }
 
 }
@@ -0,0 +1,115 @@
+package by.aresheg.restaurant.service.kafka;
+
+import by.aresheg.restaurant.config.props.OutboxProperties;
+import by.aresheg.restaurant.domain.model.outbox.OutboxEvent;
+import by.aresheg.restaurant.event.UserChangedEvent;
+import by.aresheg.restaurant.event.UserRegisteredEvent;
+import by.aresheg.restaurant.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publishes outbox rows to Kafka in batches. A batch is claimed in a short transaction that locks the
+ * rows with SKIP LOCKED and marks them claimed for {@code claim-timeout}, so several instances can relay
+ * in parallel without holding row locks while waiting for the broker. Rows acknowledged by the broker are
+ * deleted afterwards, failed ones are released for the next poll, and rows of a relay that died mid-batch
+ * are picked up again once their claim expires.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+
+    private final KafkaEventProducer kafkaEventProducer;
+
+    private final OutboxProperties outboxProperties;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:1s}")
+    public void relay() {
+        int published;
+        do {
+            List<OutboxEvent> batch = transactionTemplate.execute(status -> claimNextBatch());
+            if (batch == null || batch.isEmpty()) {
+                return;
+            }
+            published = publish(batch);
+        } while (published == outboxProperties.getBatchSize());
+    }
+
+    private List<OutboxEvent> claimNextBatch() {
+        List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(outboxProperties.getBatchSize());
+        if (!batch.isEmpty()) {
+            outboxEventRepository.claim(
+                    batch.stream().map(OutboxEvent::getId).toList(),
+                    outboxProperties.getClaimTimeout().toMillis()
+            );
+        }
+        return batch;
+    }
+
+    private int publish(List<OutboxEvent> batch) {
+        List<CompletableFuture<Void>> sends = new ArrayList<>(batch.size());
+        for (OutboxEvent outboxEvent : batch) {
+            sends.add(send(outboxEvent));
+        }
+
+        List<Long> publishedIds = new ArrayList<>(batch.size());
+        List<Long> failedIds = new ArrayList<>();
+        long deadline = System.nanoTime() + outboxProperties.getSendTimeout().toNanos();
+        for (int i = 0; i < batch.size(); i++) {
+            try {
+                sends.get(i).get(Math.max(0L, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                publishedIds.add(batch.get(i).getId());
+            } catch (InterruptedException ex) {
+                // The rest of the batch stays claimed and is relayed again once the claim expires
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception ex) {
+                log.warn("Failed to publish outbox event {}: {}", batch.get(i).getId(), ex.getMessage());
+                failedIds.add(batch.get(i).getId());
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!publishedIds.isEmpty()) {
+                outboxEventRepository.deleteByIds(publishedIds);
+            }
+            if (!failedIds.isEmpty()) {
+                outboxEventRepository.release(failedIds);
+            }
+        });
+        return publishedIds.size();
+    }
+
+    private CompletableFuture<Void> send(OutboxEvent outboxEvent) {
+        try {
+            return switch (outboxEvent.getEventType()) {
+                case USER_REGISTERED -> kafkaEventProducer.sendUserRegisteredEvent(
+                        objectMapper.readValue(outboxEvent.getPayload(), UserRegisteredEvent.class)
+                );
+                case USER_CHANGED -> kafkaEventProducer.sendUserChangedEvent(
+                        objectMapper.readValue(outboxEvent.getPayload(), UserChangedEvent.class)
+                );
+            };
+        } catch (JsonProcessingException ex) {
+            return CompletableFuture.failedFuture(ex);
+        }
+    }
+
+}
@@ -0,0 +1,34 @@
+package by.aresheg.restaurant.service.kafka;
+
+import lombok.RequiredArgsConstructor;
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.support.TopicPartitionOffset;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Lists the partitions of a topic for listeners that assign themselves all of them instead of joining a group.
+ */
+@Component
+@RequiredArgsConstructor
+public class TopicPartitionFinder {
+
+    private final KafkaAdmin kafkaAdmin;
+
+    private final List<NewTopic> declaredTopics;
+
+    // Throws while the broker is unreachable
+    public TopicPartitionOffset[] partitions(String topic) {
+        // KafkaAdmin only creates the declared topics at startup, which may have failed, so create this one first
+        declaredTopics.stream()
+                .filter(declared -> declared.name().equals(topic))
+                .forEach(kafkaAdmin::createOrModifyTopics);
+
+        return kafkaAdmin.describeTopics(topic).get(topic).partitions().stream()
+                .map(partition -> new TopicPartitionOffset(topic, partition.partition()))
+                .toArray(TopicPartitionOffset[]::new);
+    }
+
+}
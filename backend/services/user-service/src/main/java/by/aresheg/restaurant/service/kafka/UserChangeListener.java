@@ -0,0 +1,42 @@
+package by.aresheg.restaurant.service.kafka;
+
+import by.aresheg.restaurant.event.UserChangedEvent;
+import by.aresheg.restaurant.service.RoleRegistry;
+import by.aresheg.restaurant.service.UserCacheInvalidator;
+import by.aresheg.restaurant.service.UserContactIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class UserChangeListener implements ConsumerSeekAware {
+
+    private final UserCacheInvalidator userCacheInvalidator;
+
+    private final UserContactIndex userContactIndex;
+
+    private final RoleRegistry roleRegistry;
+
+    // Registered on the user-changes topic by UserChangeListenerRegistrar once the broker is reachable
+    public void onUserChanged(UserChangedEvent event) {
+        switch (event.type()) {
+            case ROLES_REFRESHED -> roleRegistry.refresh();
+            case CREATED -> userContactIndex.apply(event);
+            case UPDATED, DELETED -> {
+                userCacheInvalidator.evict(event);
+                userContactIndex.apply(event);
+            }
+        }
+    }
+
+    // Positions are fixed by now and nothing is delivered until this returns, so no change falls between the
+    // snapshot and the first record; a CREATED or DELETED the snapshot already reflects is a no-op in the index
+    @Override
+    public void onPartitionsAssigned(Map<org.apache.kafka.common.TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        userContactIndex.rebuild();
+    }
+
+}
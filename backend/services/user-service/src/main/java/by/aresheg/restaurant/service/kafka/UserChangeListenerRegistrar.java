@@ -0,0 +1,88 @@
+package by.aresheg.restaurant.service.kafka;
+
+import by.aresheg.restaurant.event.UserChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.config.KafkaListenerContainerFactory;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.config.MethodKafkaListenerEndpoint;
+import org.springframework.messaging.handler.annotation.support.DefaultMessageHandlerMethodFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Properties;
+
+/**
+ * Registers {@link UserChangeListener} on every partition of the user-changes topic. The partitions are only
+ * known once the broker answers, so the lookup runs on the scheduler and is retried until it succeeds instead
+ * of holding up startup; until then the index reports every value as possibly taken.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class UserChangeListenerRegistrar {
+
+    private static final String LISTENER_ID = "user-changes";
+
+    private final UserChangeListener userChangeListener;
+
+    private final TopicPartitionFinder topicPartitionFinder;
+
+    private final KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry;
+
+    private final KafkaListenerContainerFactory<?> kafkaListenerContainerFactory;
+
+    @Value("${app.kafka.user-changes-topic}")
+    private String topic;
+
+    private volatile boolean registered;
+
+    @Scheduled(fixedDelayString = "${app.kafka.user-changes-retry-interval:10s}")
+    public void register() {
+        if (registered) {
+            return;
+        }
+
+        try {
+            kafkaListenerEndpointRegistry.registerListenerContainer(endpoint(), kafkaListenerContainerFactory, true);
+            registered = true;
+            log.info("Listening to {} on all partitions", topic);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to list the partitions of {}, retrying: {}", topic, ex.getMessage());
+        }
+    }
+
+    // Every instance assigns itself all partitions without a consumer group, so the topic is a broadcast and
+    // no offsets or groups are left behind; a fresh instance has an empty cache, so it starts at the end
+    private MethodKafkaListenerEndpoint<String, UserChangedEvent> endpoint() {
+        MethodKafkaListenerEndpoint<String, UserChangedEvent> endpoint = new MethodKafkaListenerEndpoint<>();
+        endpoint.setId(LISTENER_ID);
+        endpoint.setTopicPartitions(topicPartitionFinder.partitions(topic));
+        endpoint.setBean(userChangeListener);
+        endpoint.setMethod(onUserChanged());
+        endpoint.setMessageHandlerMethodFactory(messageHandlerMethodFactory());
+
+        Properties consumerProperties = new Properties();
+        consumerProperties.setProperty("auto.offset.reset", "latest");
+        consumerProperties.setProperty("enable.auto.commit", "false");
+        endpoint.setConsumerProperties(consumerProperties);
+        return endpoint;
+    }
+
+    private static Method onUserChanged() {
+        try {
+            return UserChangeListener.class.getMethod("onUserChanged", UserChangedEvent.class);
+        } catch (NoSuchMethodException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    private static DefaultMessageHandlerMethodFactory messageHandlerMethodFactory() {
+        DefaultMessageHandlerMethodFactory factory = new DefaultMessageHandlerMethodFactory();
+        factory.afterPropertiesSet();
+        return factory;
+    }
+
+}
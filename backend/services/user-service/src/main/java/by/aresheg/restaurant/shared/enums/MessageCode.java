@@ -12,7 +12,9 @@ public enum MessageCode {
     USERS_RETRIEVED_SUCCESS("USERS_RETRIEVED_SUCCESS", "Users retrieved successfully"),
     USER_RETRIEVED_SUCCESS("USER_RETRIEVED_SUCCESS", "User retrieved successfully"),
     USER_DELETED_SUCCESS("USER_DELETED_SUCCESS", "User deleted successfully"),
-    PASSWORD_CHANGE_SUCCESS("PASSWORD_CHANGE_SUCCESS", "Password changed successfully");
+    PASSWORD_CHANGE_SUCCESS("PASSWORD_CHANGE_SUCCESS", "Password changed successfully"),
+    ROLES_REFRESHED_SUCCESS("ROLES_REFRESHED_SUCCESS", "Roles reloaded successfully"),
+    AVAILABILITY_CHECKED_SUCCESS("AVAILABILITY_CHECKED_SUCCESS", "Availability checked successfully");
 
     private final String messageCode;
 
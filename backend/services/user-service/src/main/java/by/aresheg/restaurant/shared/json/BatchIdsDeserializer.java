@@ -0,0 +1,44 @@
+package by.aresheg.restaurant.shared.json;
+
+import by.aresheg.restaurant.config.props.UserBatchProperties;
+import by.aresheg.restaurant.domain.exception.BatchTooLargeException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the ids of a batch request and gives up as soon as the list grows past {@code app.users.batch.max-size},
+ * so an oversized body is rejected without materializing it. Instantiated by Spring's handler instantiator.
+ */
+public class BatchIdsDeserializer extends StdDeserializer<List<Long>> {
+
+    private final int maxSize;
+
+    public BatchIdsDeserializer(UserBatchProperties userBatchProperties) {
+        super(List.class);
+        this.maxSize = userBatchProperties.getMaxSize();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Long> deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+        if (!parser.isExpectedStartArrayToken()) {
+            return (List<Long>) context.handleUnexpectedToken(List.class, parser);
+        }
+
+        List<Long> ids = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            if (ids.size() == maxSize) {
+                throw new BatchTooLargeException(String.format("At most %d ids can be requested at once", maxSize));
+            }
+            ids.add(context.readValue(parser, Long.class));
+        }
+        return ids;
+    }
+
+}
@@ -0,0 +1,15 @@
+package by.aresheg.restaurant.shared.pagination;
+
+import java.util.List;
+
+/**
+ * @param nextCursor opaque token of the next page, null on the last page
+ */
+public record CursorPage<T>(
+
+        List<T> items,
+
+        String nextCursor
+
+) {
+}
@@ -0,0 +1,43 @@
+package by.aresheg.restaurant.shared.pagination;
+
+import by.aresheg.restaurant.domain.exception.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Encodes keyset positions into opaque page tokens, so clients cannot rely on their format.
+ */
+public final class Cursors {
+
+    private static final String ID_PREFIX = "id:";
+
+    private Cursors() {
+    }
+
+    public static String encodeId(long id) {
+        return Base64.getUrlEncoder()
+                .withoutPadding()
+                .encodeToString((ID_PREFIX + id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return the id the page starts after, 0 for the first page
+     */
+    public static long decodeId(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return 0L;
+        }
+
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (!decoded.startsWith(ID_PREFIX)) {
+                throw new InvalidCursorException("Invalid page cursor");
+            }
+            return Long.parseLong(decoded.substring(ID_PREFIX.length()));
+        } catch (IllegalArgumentException ex) {
+            throw new InvalidCursorException("Invalid page cursor", ex);
+        }
+    }
+
+}
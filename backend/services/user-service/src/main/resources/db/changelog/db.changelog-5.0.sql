@@ -0,0 +1,9 @@
+--changeset vkirbut':1
+CREATE TABLE IF NOT EXISTS outbox_event
+(
+    id BIGSERIAL PRIMARY KEY,
+    event_type TEXT NOT NULL,
+    aggregate_id VARCHAR(255) NOT NULL,
+    payload TEXT NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT now()
+);
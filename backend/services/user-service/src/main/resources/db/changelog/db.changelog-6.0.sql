@@ -0,0 +1,2 @@
+--changeset vkirbut':1
+CREATE INDEX IF NOT EXISTS idx_users_status_id ON users (status, id);
@@ -0,0 +1,6 @@
+--changeset vkirbut':1
+--comment: Registration maps violations of these constraints to conflict errors by name, so the names are declared instead of left to database defaults
+ALTER TABLE users DROP CONSTRAINT IF EXISTS users_email_key;
+ALTER TABLE users ADD CONSTRAINT users_email_key UNIQUE (email);
+ALTER TABLE users DROP CONSTRAINT IF EXISTS users_phone_key;
+ALTER TABLE users ADD CONSTRAINT users_phone_key UNIQUE (phone);
@@ -0,0 +1,2 @@
+--changeset vkirbut':1
+ALTER TABLE outbox_event ADD COLUMN IF NOT EXISTS claimed_until TIMESTAMP;
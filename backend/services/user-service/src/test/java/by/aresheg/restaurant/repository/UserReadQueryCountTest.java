@@ -0,0 +1,126 @@
+package by.aresheg.restaurant.repository;
+
+import by.aresheg.restaurant.config.props.PaginationProperties;
+import by.aresheg.restaurant.config.props.UserBatchProperties;
+import by.aresheg.restaurant.domain.model.auth.dto.response.UserBatchResponseDto;
+import by.aresheg.restaurant.domain.model.auth.dto.response.UserContactDto;
+import by.aresheg.restaurant.domain.model.auth.dto.response.UserResponseDto;
+import by.aresheg.restaurant.domain.model.role.Role;
+import by.aresheg.restaurant.domain.model.user.User;
+import by.aresheg.restaurant.domain.model.user.UserStatus;
+import by.aresheg.restaurant.mapper.UserMapperImpl;
+import by.aresheg.restaurant.service.impl.UserServiceImpl;
+import by.aresheg.restaurant.shared.pagination.CursorPage;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Guards the read paths behind GET /users, GET /users/{id} and POST /users/batch against N+1 role loading.
+ */
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class UserReadQueryCountTest {
+
+    private static final int USERS = 10;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private UserServiceImpl userService;
+
+    private Statistics statistics;
+
+    private Long firstUserId;
+
+    @BeforeEach
+    void setUp() {
+        Role userRole = Role.builder().name("USER").build();
+        Role adminRole = Role.builder().name("ADMIN").build();
+        entityManager.persist(userRole);
+        entityManager.persist(adminRole);
+
+        for (int i = 0; i < USERS; i++) {
+            User user = User.builder()
+                    .email("user" + i + "@example.com")
+                    .passwordHash("hash")
+                    .fullName("User " + i)
+                    .phone("+37529000000" + i)
+                    .status(UserStatus.ACTIVE)
+                    .roles(Set.of(userRole, adminRole))
+                    .build();
+            entityManager.persist(user);
+            if (firstUserId == null) {
+                firstUserId = user.getId();
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        PaginationProperties paginationProperties = new PaginationProperties();
+        paginationProperties.setDefaultSize(USERS);
+        userService = new UserServiceImpl(userRepository, new UserMapperImpl(), paginationProperties, new UserBatchProperties(), null);
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void listingUsersIsOneQuery() {
+        CursorPage<UserResponseDto> page = userService.getUsers(null, null, null);
+
+        assertEquals(USERS, page.items().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void listingUsersByStatusIsOneQuery() {
+        CursorPage<UserResponseDto> page = userService.getUsers(null, null, UserStatus.ACTIVE);
+
+        assertEquals(USERS, page.items().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void gettingUserByIdIsOneQuery() {
+        UserResponseDto user = userService.getUserResponseById(firstUserId);
+
+        assertEquals("user0@example.com", user.email());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void batchLookupIsOneQuery() {
+        UserBatchResponseDto response = userService.getUsersByIds(List.of(firstUserId + 2, firstUserId, -1L));
+
+        assertEquals(List.of(firstUserId + 2, firstUserId), response.users().stream().map(UserContactDto::id).toList());
+        assertEquals(List.of(-1L), response.missingIds());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void loadingUserWithRolesIsOneQuery() {
+        User user = userService.getUserById(firstUserId);
+
+        assertEquals(2, user.getRoles().size());
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+}
@@ -0,0 +1,139 @@
+package by.aresheg.restaurant.repository;
+
+import by.aresheg.restaurant.config.props.PaginationProperties;
+import by.aresheg.restaurant.config.props.UserBatchProperties;
+import by.aresheg.restaurant.domain.model.role.Role;
+import by.aresheg.restaurant.domain.model.user.User;
+import by.aresheg.restaurant.domain.model.user.UserStatus;
+import by.aresheg.restaurant.mapper.UserMapperImpl;
+import by.aresheg.restaurant.service.OutboxService;
+import by.aresheg.restaurant.service.UserCacheInvalidator;
+import by.aresheg.restaurant.service.UserService;
+import by.aresheg.restaurant.service.impl.UserServiceImpl;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Lookups by email through the second-level cache compared with going to the database every time.
+ * Same setup as {@link UserSecondLevelCacheTest}. Run with {@code gradle benchmark}.
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.region.factory_class=jcache",
+        "spring.jpa.properties.hibernate.javax.cache.provider=com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider",
+        "spring.jpa.properties.hibernate.javax.cache.uri=caffeine-cache.conf"
+})
+@Import({UserServiceImpl.class, UserMapperImpl.class, PaginationProperties.class, UserBatchProperties.class, UserCacheInvalidator.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserSecondLevelCacheBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSecondLevelCacheBenchmark.class);
+
+    private static final String EMAIL = "user@example.com";
+
+    private static final int LOOKUPS = 5_000;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockitoBean
+    private OutboxService outboxService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+        Role role = Role.builder().name("USER").build();
+        entityManager.persist(role);
+        User user = User.builder()
+                .email(EMAIL)
+                .passwordHash("hash")
+                .fullName("John")
+                .phone("+375291234567")
+                .status(UserStatus.ACTIVE)
+                .roles(Set.of(role))
+                .build();
+        entityManager.persist(user);
+        entityManager.getTransaction().commit();
+        entityManager.close();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        entityManagerFactory.getCache().evictAll();
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+        entityManager.createNativeQuery("delete from user_schema.users_roles").executeUpdate();
+        entityManager.createNativeQuery("delete from user_schema.users").executeUpdate();
+        entityManager.createNativeQuery("delete from user_schema.roles").executeUpdate();
+        entityManager.getTransaction().commit();
+        entityManager.close();
+    }
+
+    @Test
+    void lookupThroughputWithAndWithoutCache() {
+        userService.getUserByEmail(EMAIL);
+
+        statistics.clear();
+        long cachedNanos = measure(() -> userService.getUserByEmail(EMAIL));
+        long cachedStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        long uncachedNanos = measure(() -> userRepository.findByEmail(EMAIL));
+        long uncachedStatements = statistics.getPrepareStatementCount();
+
+        log.info("User lookup by email, {} lookups: cached {} ops/s ({} statements), uncached {} ops/s ({} statements)",
+                LOOKUPS, Math.round(opsPerSecond(cachedNanos)), cachedStatements, Math.round(opsPerSecond(uncachedNanos)), uncachedStatements);
+        assertEquals(0, cachedStatements);
+        assertEquals(LOOKUPS, uncachedStatements);
+    }
+
+    private static long measure(Runnable lookup) {
+        long startedAt = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            lookup.run();
+        }
+        return System.nanoTime() - startedAt;
+    }
+
+    private static double opsPerSecond(long nanos) {
+        return LOOKUPS / (nanos / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+}
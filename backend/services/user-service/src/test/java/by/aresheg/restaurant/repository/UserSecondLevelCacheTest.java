@@ -0,0 +1,171 @@
+package by.aresheg.restaurant.repository;
+
+import by.aresheg.restaurant.config.CacheMetricsConfig;
+import by.aresheg.restaurant.config.props.PaginationProperties;
+import by.aresheg.restaurant.config.props.UserBatchProperties;
+import by.aresheg.restaurant.domain.exception.UserNotFoundException;
+import by.aresheg.restaurant.domain.model.auth.dto.request.UpdateUserRequestDto;
+import by.aresheg.restaurant.domain.model.role.Role;
+import by.aresheg.restaurant.domain.model.user.User;
+import by.aresheg.restaurant.domain.model.user.UserStatus;
+import by.aresheg.restaurant.event.UserChangedEvent;
+import by.aresheg.restaurant.mapper.UserMapperImpl;
+import by.aresheg.restaurant.service.OutboxService;
+import by.aresheg.restaurant.service.UserCacheInvalidator;
+import by.aresheg.restaurant.service.UserService;
+import by.aresheg.restaurant.service.impl.UserServiceImpl;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs without a test transaction, so cache puts and invalidations happen on commit as in production.
+ */
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=true",
+        "spring.jpa.properties.hibernate.cache.region.factory_class=jcache",
+        "spring.jpa.properties.hibernate.javax.cache.provider=com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider",
+        "spring.jpa.properties.hibernate.javax.cache.uri=caffeine-cache.conf"
+})
+@Import({UserServiceImpl.class, UserMapperImpl.class, PaginationProperties.class, UserBatchProperties.class, UserCacheInvalidator.class,
+        CacheMetricsConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UserSecondLevelCacheTest {
+
+    private static final String EMAIL = "user@example.com";
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserCacheInvalidator userCacheInvalidator;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private MeterBinder secondLevelCacheMetrics;
+
+    @MockitoBean
+    private OutboxService outboxService;
+
+    private Statistics statistics;
+
+    private Long userId;
+
+    @BeforeEach
+    void setUp() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+        Role role = Role.builder().name("USER").build();
+        entityManager.persist(role);
+        User user = User.builder()
+                .email(EMAIL)
+                .passwordHash("hash")
+                .fullName("John")
+                .phone("+375291234567")
+                .status(UserStatus.ACTIVE)
+                .roles(Set.of(role))
+                .build();
+        entityManager.persist(user);
+        entityManager.getTransaction().commit();
+        entityManager.close();
+        userId = user.getId();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        entityManagerFactory.getCache().evictAll();
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        entityManager.getTransaction().begin();
+        entityManager.createNativeQuery("delete from user_schema.users_roles").executeUpdate();
+        entityManager.createNativeQuery("delete from user_schema.users").executeUpdate();
+        entityManager.createNativeQuery("delete from user_schema.roles").executeUpdate();
+        entityManager.getTransaction().commit();
+        entityManager.close();
+    }
+
+    @Test
+    void lookupByEmailIsServedFromCacheOnceWarm() {
+        userService.getUserByEmail(EMAIL);
+        statistics.clear();
+
+        User user = userService.getUserByEmail(EMAIL);
+
+        assertEquals(1, user.getRoles().size());
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void cacheHitsArePublishedAsMeters() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        secondLevelCacheMetrics.bindTo(registry);
+
+        userService.getUserByEmail(EMAIL);
+        userService.getUserByEmail(EMAIL);
+
+        assertTrue(registry.get("cache.gets").tag("cache", "user").tag("result", "hit").functionCounter().count() > 0);
+    }
+
+    @Test
+    void updateRefreshesCachedUser() {
+        userService.getUserByEmail(EMAIL);
+
+        userService.updateUser(userId, new UpdateUserRequestDto("Jane", "+375297654321"));
+
+        assertEquals("Jane", userService.getUserByEmail(EMAIL).getFullName());
+    }
+
+    @Test
+    void deleteEvictsCachedUser() {
+        userService.getUserByEmail(EMAIL);
+
+        userService.deleteUser(userId);
+
+        assertThrows(UserNotFoundException.class, () -> userService.getUserByEmail(EMAIL));
+    }
+
+    @Test
+    void changeEventFromAnotherInstanceEvictsCachedUser() {
+        userService.getUserByEmail(EMAIL);
+        // Plain JDBC, like a write on another instance, bypasses this instance's Hibernate cache
+        new JdbcTemplate(dataSource).update("update user_schema.users set full_name = 'Jane' where id = ?", userId);
+        assertEquals("John", userService.getUserByEmail(EMAIL).getFullName());
+
+        userCacheInvalidator.evict(new UserChangedEvent(userId, EMAIL, null, null, UserChangedEvent.Type.UPDATED));
+
+        assertEquals("Jane", userService.getUserByEmail(EMAIL).getFullName());
+    }
+
+}
@@ -0,0 +1,51 @@
+package by.aresheg.restaurant.security;
+
+import by.aresheg.restaurant.security.props.IdentityProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdentitySignerTest {
+
+    // Produced by the api-gateway IdentitySigner for the same payload and secret
+    private static final String GATEWAY_SIGNATURE = "xQ9cz37qrjGA-1wlDJgbCLq5Tjdm9_oCT3Vpj0132og";
+
+    @Test
+    void acceptsSignatureFromGateway() {
+        IdentitySigner identitySigner = new IdentitySigner(properties(true, "test-secret"));
+
+        assertTrue(identitySigner.verify("42", "user@example.com", "USER,ADMIN", 1_700_000_000_000L, GATEWAY_SIGNATURE));
+    }
+
+    @Test
+    void rejectsTamperedPayloadAndMalformedSignature() {
+        IdentitySigner identitySigner = new IdentitySigner(properties(true, "test-secret"));
+
+        assertFalse(identitySigner.verify("42", "user@example.com", "USER,ADMIN,OWNER", 1_700_000_000_000L, GATEWAY_SIGNATURE));
+        assertFalse(identitySigner.verify("42", "user@example.com", "USER,ADMIN", 1_700_000_000_000L, "not base64!"));
+    }
+
+    @Test
+    void missingSecretFailsAtStartupWhenTrusted() {
+        IllegalStateException ex = assertThrows(IllegalStateException.class, () -> new IdentitySigner(properties(true, " ")));
+        assertEquals("security.identity.secret must be set when signed identity headers are enabled", ex.getMessage());
+    }
+
+    @Test
+    void untrustedSignerWithoutSecretRejectsEverything() {
+        IdentitySigner identitySigner = new IdentitySigner(properties(false, null));
+
+        assertFalse(identitySigner.verify("42", "user@example.com", "USER,ADMIN", 1_700_000_000_000L, GATEWAY_SIGNATURE));
+    }
+
+    static IdentityProperties properties(boolean trusted, String secret) {
+        IdentityProperties identityProperties = new IdentityProperties();
+        identityProperties.setTrusted(trusted);
+        identityProperties.setSecret(secret);
+        return identityProperties;
+    }
+
+}
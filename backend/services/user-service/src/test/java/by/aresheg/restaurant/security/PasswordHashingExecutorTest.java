@@ -0,0 +1,109 @@
+package by.aresheg.restaurant.security;
+
+import by.aresheg.restaurant.domain.exception.ServiceOverloadedException;
+import by.aresheg.restaurant.domain.handler.GlobalExceptionHandler;
+import by.aresheg.restaurant.domain.model.auth.dto.response.ApiErrorResponse;
+import by.aresheg.restaurant.security.props.PasswordHashingProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHashingExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+
+    private PasswordHashingExecutor passwordHashingExecutor;
+
+    @BeforeEach
+    void setUp() {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setPoolSize(1);
+        properties.setQueueCapacity(1);
+        passwordHashingExecutor = new PasswordHashingExecutor(properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        passwordHashingExecutor.destroy();
+    }
+
+    @Test
+    void runsTaskOnPoolAndReturnsResult() {
+        String thread = passwordHashingExecutor.execute(() -> Thread.currentThread().getName());
+
+        assertTrue(thread.startsWith("password-hashing-"), thread);
+        assertEquals(1, meterRegistry.get("password.hashing.duration").timer().count());
+    }
+
+    @Test
+    void taskFailureIsRethrownToCaller() {
+        IllegalArgumentException failure = new IllegalArgumentException("bad hash");
+
+        assertSame(failure, assertThrows(IllegalArgumentException.class, () -> passwordHashingExecutor.execute(() -> {
+            throw failure;
+        })));
+    }
+
+    @Test
+    void workBeyondQueueIsRejectedAndMappedTo503() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> running = callers.submit(() -> passwordHashingExecutor.execute(() -> {
+            started.countDown();
+            awaitQuietly(release);
+            return "running";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        Future<String> queued = callers.submit(() -> passwordHashingExecutor.execute(() -> "queued"));
+        awaitQueueSize(1);
+
+        ServiceOverloadedException ex = assertThrows(ServiceOverloadedException.class,
+                () -> passwordHashingExecutor.execute(() -> "rejected"));
+        assertEquals(1, meterRegistry.get("password.hashing.rejected").counter().count());
+
+        ResponseEntity<ApiErrorResponse> response = new GlobalExceptionHandler()
+                .handleServiceOverloaded(ex, new MockHttpServletRequest("POST", "/auth/login"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+
+        release.countDown();
+        assertEquals("running", running.get(5, TimeUnit.SECONDS));
+        assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    private void awaitQueueSize(int size) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("password.hashing.queue.size").gauge().value() < size) {
+            assertTrue(System.nanoTime() < deadline, "task was not queued");
+            Thread.sleep(5);
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,104 @@
+package by.aresheg.restaurant.security;
+
+import by.aresheg.restaurant.config.SecurityConfig;
+import by.aresheg.restaurant.domain.model.role.Role;
+import by.aresheg.restaurant.domain.model.user.User;
+import by.aresheg.restaurant.security.props.PasswordHashingProperties;
+import by.aresheg.restaurant.service.RoleRegistry;
+import by.aresheg.restaurant.service.UserService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PasswordStrengthCalibratorTest {
+
+    private static final String EMAIL = "user@example.com";
+
+    private static final String PASSWORD = "P@ssw0rd!";
+
+    @Test
+    void unreachableTargetKeepsMinimumStrength() {
+        assertEquals(4, new PasswordStrengthCalibrator(properties(Duration.ofNanos(1))).calibrateBcryptStrength());
+    }
+
+    @Test
+    void generousTargetIsCappedAtMaximumStrength() {
+        assertEquals(6, new PasswordStrengthCalibrator(properties(Duration.ofHours(1))).calibrateBcryptStrength());
+    }
+
+    @Test
+    void legacyHashIsRehashedOnLogin() {
+        String legacyHash = new BCryptPasswordEncoder(4).encode(PASSWORD);
+        UserService userService = mock(UserService.class);
+
+        DaoAuthenticationProvider authenticationProvider = authenticationProvider(userService, legacyHash);
+        authenticationProvider.authenticate(new UsernamePasswordAuthenticationToken(EMAIL, PASSWORD));
+
+        ArgumentCaptor<String> newHash = ArgumentCaptor.forClass(String.class);
+        verify(userService).updatePasswordHash(eq(42L), newHash.capture());
+        assertTrue(newHash.getValue().startsWith("{bcrypt}$2a$04$"), newHash.getValue());
+    }
+
+    @Test
+    void currentHashIsLeftAlone() {
+        UserService userService = mock(UserService.class);
+        PasswordEncoder passwordEncoder = passwordEncoder();
+
+        DaoAuthenticationProvider authenticationProvider = authenticationProvider(userService, passwordEncoder.encode(PASSWORD));
+        authenticationProvider.authenticate(new UsernamePasswordAuthenticationToken(EMAIL, PASSWORD));
+
+        verify(userService, never()).updatePasswordHash(eq(42L), anyString());
+    }
+
+    private DaoAuthenticationProvider authenticationProvider(UserService userService, String storedHash) {
+        when(userService.getUserByEmail(EMAIL)).thenReturn(User.builder()
+                .id(42L)
+                .email(EMAIL)
+                .passwordHash(storedHash)
+                .roles(Set.of(Role.builder().id(1L).name("USER").build()))
+                .build());
+        RoleRegistry roleRegistry = mock(RoleRegistry.class);
+        when(roleRegistry.getAuthorities(anyCollection())).thenReturn(Set.of());
+
+        JwtUserDetailsService userDetailsService = new JwtUserDetailsService(userService, new JwtEntityFactory(roleRegistry));
+        DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider(userDetailsService);
+        authenticationProvider.setPasswordEncoder(passwordEncoder());
+        authenticationProvider.setUserDetailsPasswordService(userDetailsService);
+        return authenticationProvider;
+    }
+
+    // The production encoder, calibrated to the cheapest strength to keep the test fast
+    private static PasswordEncoder passwordEncoder() {
+        PasswordHashingProperties properties = properties(Duration.ofNanos(1));
+        return new SecurityConfig(null, null, null, null).passwordEncoder(
+                new PasswordHashingExecutor(properties, new SimpleMeterRegistry()),
+                new PasswordStrengthCalibrator(properties)
+        );
+    }
+
+    private static PasswordHashingProperties properties(Duration targetLatency) {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setMinStrength(4);
+        properties.setMaxStrength(6);
+        properties.setTargetLatency(targetLatency);
+        return properties;
+    }
+
+}
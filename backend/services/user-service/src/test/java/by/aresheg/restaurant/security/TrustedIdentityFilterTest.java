@@ -0,0 +1,102 @@
+package by.aresheg.restaurant.security;
+
+import by.aresheg.restaurant.security.props.IdentityProperties;
+import by.aresheg.restaurant.service.RoleRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.stream.Collectors;
+
+import static by.aresheg.restaurant.security.TrustedIdentityFilter.SIGNATURE_HEADER;
+import static by.aresheg.restaurant.security.TrustedIdentityFilter.TIMESTAMP_HEADER;
+import static by.aresheg.restaurant.security.TrustedIdentityFilter.USER_EMAIL_HEADER;
+import static by.aresheg.restaurant.security.TrustedIdentityFilter.USER_ID_HEADER;
+import static by.aresheg.restaurant.security.TrustedIdentityFilter.USER_ROLES_HEADER;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TrustedIdentityFilterTest {
+
+    private static final String SECRET = "test-secret";
+
+    private TrustedIdentityFilter filter;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        IdentityProperties identityProperties = IdentitySignerTest.properties(true, SECRET);
+
+        RoleRegistry roleRegistry = mock(RoleRegistry.class);
+        when(roleRegistry.getAuthorities(anyCollection())).thenAnswer(invocation ->
+                ((Collection<String>) invocation.getArgument(0)).stream()
+                        .map(SimpleGrantedAuthority::new)
+                        .collect(Collectors.toUnmodifiableSet()));
+
+        filter = new TrustedIdentityFilter(identityProperties, new IdentitySigner(identityProperties), new JwtEntityFactory(roleRegistry));
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void signedHeadersAuthenticateRequest() throws Exception {
+        filter.doFilter(request("USER", System.currentTimeMillis(), null), new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertNotNull(authentication);
+        JwtEntity principal = (JwtEntity) authentication.getPrincipal();
+        assertEquals(42L, principal.getId());
+        assertEquals("user@example.com", principal.getEmail());
+        assertEquals("USER", authentication.getAuthorities().iterator().next().getAuthority());
+    }
+
+    @Test
+    void tamperedRolesAreIgnored() throws Exception {
+        filter.doFilter(request("USER", System.currentTimeMillis(), "ADMIN"), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    @Test
+    void staleHeadersAreIgnored() throws Exception {
+        filter.doFilter(request("USER", System.currentTimeMillis() - 60_000, null), new MockHttpServletResponse(), new MockFilterChain());
+
+        assertNull(SecurityContextHolder.getContext().getAuthentication());
+    }
+
+    // Signs the given roles, optionally sending different ones than were signed
+    private MockHttpServletRequest request(String roles, long timestamp, String sentRoles) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/users/42");
+        request.addHeader(USER_ID_HEADER, "42");
+        request.addHeader(USER_EMAIL_HEADER, "user@example.com");
+        request.addHeader(USER_ROLES_HEADER, sentRoles == null ? roles : sentRoles);
+        request.addHeader(TIMESTAMP_HEADER, String.valueOf(timestamp));
+        request.addHeader(SIGNATURE_HEADER, sign("42\nuser@example.com\n" + roles + "\n" + timestamp));
+        return request;
+    }
+
+    private static String sign(String payload) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+    }
+
+}
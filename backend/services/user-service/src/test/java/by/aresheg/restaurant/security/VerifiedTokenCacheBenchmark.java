@@ -0,0 +1,87 @@
+package by.aresheg.restaurant.security;
+
+import by.aresheg.restaurant.security.props.JwtProperties;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Verification cost per request with and without the cache, for a working set of tokens replayed
+ * the way a handful of active clients would. Run with {@code gradle benchmark}.
+ */
+@Tag("benchmark")
+class VerifiedTokenCacheBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(VerifiedTokenCacheBenchmark.class);
+
+    private static final int TOKENS = 100;
+
+    private static final int WARMUP_ROUNDS = 200;
+
+    private static final int MEASURED_ROUNDS = 2_000;
+
+    private final Algorithm algorithm = Algorithm.HMAC256("benchmark-secret");
+
+    private final JWTVerifier jwtVerifier = JWT.require(algorithm).build();
+
+    private final List<String> tokens = IntStream.range(0, TOKENS)
+            .mapToObj(i -> JWT.create()
+                    .withSubject("user" + i + "@example.com")
+                    .withClaim("userId", (long) i)
+                    .withClaim("roles", List.of("USER"))
+                    .withExpiresAt(Instant.now().plusSeconds(3600))
+                    .sign(algorithm))
+            .toList();
+
+    @Test
+    void verificationWithAndWithoutCache() {
+        JwtProperties cached = new JwtProperties();
+        JwtProperties uncached = new JwtProperties();
+        uncached.getCache().setEnabled(false);
+
+        double cachedNanos = nanosPerToken(new VerifiedTokenCache(cached));
+        double uncachedNanos = nanosPerToken(new VerifiedTokenCache(uncached));
+
+        log.info("Token verification: {} ns cached, {} ns uncached", Math.round(cachedNanos), Math.round(uncachedNanos));
+    }
+
+    private double nanosPerToken(VerifiedTokenCache cache) {
+        Function<String, DecodedJWT> verifier = jwtVerifier::verify;
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            replay(cache, verifier);
+        }
+
+        long startedAt = System.nanoTime();
+        long verified = 0;
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            verified += replay(cache, verifier);
+        }
+        long elapsed = System.nanoTime() - startedAt;
+
+        assertEquals((long) TOKENS * MEASURED_ROUNDS, verified);
+        return (double) elapsed / verified;
+    }
+
+    private int replay(VerifiedTokenCache cache, Function<String, DecodedJWT> verifier) {
+        int verified = 0;
+        for (String token : tokens) {
+            if (cache.get(token, verifier).getSubject() != null) {
+                verified++;
+            }
+        }
+        return verified;
+    }
+
+}
@@ -0,0 +1,97 @@
+package by.aresheg.restaurant.security;
+
+import by.aresheg.restaurant.security.props.JwtProperties;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VerifiedTokenCacheTest {
+
+    private final Algorithm algorithm = Algorithm.HMAC256("test-secret");
+
+    private final JWTVerifier jwtVerifier = JWT.require(algorithm).acceptExpiresAt(60).build();
+
+    private final AtomicInteger verifications = new AtomicInteger();
+
+    private final Function<String, DecodedJWT> verifier = token -> {
+        verifications.incrementAndGet();
+        return jwtVerifier.verify(token);
+    };
+
+    private JwtProperties jwtProperties;
+
+    @BeforeEach
+    void setUp() {
+        jwtProperties = new JwtProperties();
+        jwtProperties.getCache().setMaxSize(10);
+    }
+
+    @Test
+    void replayedTokenIsVerifiedOnce() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtProperties);
+        String token = token("user@example.com", Instant.now().plusSeconds(600));
+
+        DecodedJWT first = cache.get(token, verifier);
+        DecodedJWT second = cache.get(token, verifier);
+
+        assertSame(first, second);
+        assertEquals(1, verifications.get());
+    }
+
+    @Test
+    void entryIsNotServedAfterTokenExpiry() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtProperties);
+        String token = token("user@example.com", Instant.now().minusSeconds(1));
+
+        cache.get(token, verifier);
+        cache.get(token, verifier);
+
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void cacheStaysWithinMaxSize() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtProperties);
+        for (int i = 0; i < 50; i++) {
+            cache.get(token("user" + i + "@example.com", Instant.now().plusSeconds(600)), verifier);
+            assertTrue(cache.size() <= jwtProperties.getCache().getMaxSize(), "cache size " + cache.size());
+        }
+
+        String token = token("user@example.com", Instant.now().plusSeconds(600));
+        cache.get(token, verifier);
+        cache.get(token, verifier);
+
+        assertEquals(51, verifications.get());
+    }
+
+    @Test
+    void disabledCacheAlwaysVerifies() {
+        jwtProperties.getCache().setEnabled(false);
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtProperties);
+        String token = token("user@example.com", Instant.now().plusSeconds(600));
+
+        cache.get(token, verifier);
+        cache.get(token, verifier);
+
+        assertEquals(2, verifications.get());
+    }
+
+    private String token(String subject, Instant expiresAt) {
+        return JWT.create()
+                .withSubject(subject)
+                .withExpiresAt(expiresAt)
+                .sign(algorithm);
+    }
+
+}
@@ -0,0 +1,132 @@
+package by.aresheg.restaurant.service.impl;
+
+import by.aresheg.restaurant.domain.model.auth.dto.auth.JwtRequest;
+import by.aresheg.restaurant.domain.model.auth.dto.auth.JwtResponse;
+import by.aresheg.restaurant.domain.model.role.Role;
+import by.aresheg.restaurant.domain.model.user.User;
+import by.aresheg.restaurant.domain.model.user.UserStatus;
+import by.aresheg.restaurant.mapper.UserMapperImpl;
+import by.aresheg.restaurant.repository.UserRepository;
+import by.aresheg.restaurant.security.JwtEntityFactory;
+import by.aresheg.restaurant.security.JwtTokenProvider;
+import by.aresheg.restaurant.security.JwtUserDetailsService;
+import by.aresheg.restaurant.security.props.JwtProperties;
+import by.aresheg.restaurant.service.OutboxService;
+import by.aresheg.restaurant.service.RoleRegistry;
+import by.aresheg.restaurant.service.UserContactIndex;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.security.authentication.ProviderManager;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs login against H2, so the statement count covers role loading as well as the user lookup.
+ */
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.hbm2ddl.create_namespaces=true",
+        "spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class AuthServiceImplTest {
+
+    private static final String EMAIL = "user@example.com";
+
+    private static final String PASSWORD = "P@ssw0rd!";
+
+    private final PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+
+    private final Algorithm algorithm = Algorithm.HMAC256("test-secret");
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private OutboxService outboxService;
+
+    private AuthServiceImpl authService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        outboxService = mock(OutboxService.class);
+
+        JwtProperties jwtProperties = new JwtProperties();
+        jwtProperties.setAccess(Duration.ofMinutes(30));
+        jwtProperties.setRefresh(Duration.ofDays(30));
+
+        RoleRegistry roleRegistry = mock(RoleRegistry.class);
+        when(roleRegistry.getAuthorities(anyCollection())).thenAnswer(invocation ->
+                ((Collection<String>) invocation.getArgument(0)).stream()
+                        .map(SimpleGrantedAuthority::new)
+                        .collect(Collectors.toUnmodifiableSet()));
+        JwtEntityFactory jwtEntityFactory = new JwtEntityFactory(roleRegistry);
+
+        UserServiceImpl userService = new UserServiceImpl(userRepository, null, null, null, null);
+        JwtUserDetailsService userDetailsService = new JwtUserDetailsService(userService, jwtEntityFactory);
+        DaoAuthenticationProvider authenticationProvider = new DaoAuthenticationProvider(userDetailsService);
+        authenticationProvider.setPasswordEncoder(passwordEncoder);
+
+        JwtTokenProvider jwtTokenProvider = new JwtTokenProvider(
+                jwtProperties, algorithm, JWT.require(algorithm).build(), userService, userDetailsService, null, null, jwtEntityFactory
+        );
+
+        authService = new AuthServiceImpl(
+                new ProviderManager(authenticationProvider), userRepository, roleRegistry, jwtTokenProvider, new UserMapperImpl(), outboxService, passwordEncoder, mock(UserContactIndex.class)
+        );
+    }
+
+    @Test
+    void loginIsOneQuery() {
+        Role role = Role.builder().name("USER").build();
+        entityManager.persist(role);
+        User user = User.builder()
+                .email(EMAIL)
+                .passwordHash(passwordEncoder.encode(PASSWORD))
+                .fullName("John")
+                .phone("+375291234567")
+                .status(UserStatus.ACTIVE)
+                .roles(Set.of(role))
+                .build();
+        entityManager.persist(user);
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        JwtResponse response = authService.login(new JwtRequest(EMAIL, PASSWORD));
+
+        assertEquals(1, statistics.getPrepareStatementCount());
+
+        DecodedJWT accessToken = JWT.decode(response.accessToken());
+        assertEquals(EMAIL, accessToken.getSubject());
+        assertEquals(user.getId(), accessToken.getClaim("userId").asLong());
+        assertEquals(List.of("USER"), accessToken.getClaim("roles").asList(String.class));
+    }
+
+}
@@ -0,0 +1,215 @@
+package by.aresheg.restaurant.service.impl;
+
+import by.aresheg.restaurant.config.props.AvailabilityProperties;
+import by.aresheg.restaurant.domain.model.auth.dto.response.AvailabilityResponseDto;
+import by.aresheg.restaurant.domain.model.user.UserContactKeys;
+import by.aresheg.restaurant.event.UserChangedEvent;
+import by.aresheg.restaurant.repository.UserRepository;
+import by.aresheg.restaurant.service.UserContactIndex;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AvailabilityServiceImplTest {
+
+    private static final Long USER_ID = 1L;
+
+    private static final String EMAIL = "John.Doe@Example.com";
+
+    private static final String PHONE = "+375291235689";
+
+    private UserRepository userRepository;
+
+    private UserContactIndex userContactIndex;
+
+    private AvailabilityServiceImpl availabilityService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+        when(userRepository.streamAllContactKeys()).thenReturn(Stream.of(new UserContactKeys(USER_ID, EMAIL, PHONE)));
+
+        AvailabilityProperties availabilityProperties = new AvailabilityProperties();
+        availabilityProperties.setExpectedInsertions(1_000);
+        userContactIndex = new UserContactIndex(userRepository, availabilityProperties);
+        userContactIndex.rebuild();
+
+        availabilityService = new AvailabilityServiceImpl(userRepository, userContactIndex);
+    }
+
+    @Test
+    void unknownValuesAreAvailableWithoutQueries() {
+        AvailabilityResponseDto response = availabilityService.checkAvailability("new@example.com", "+375291111111");
+
+        assertTrue(response.emailAvailable());
+        assertTrue(response.phoneAvailable());
+        verify(userRepository, never()).existsByEmail(anyString());
+        verify(userRepository, never()).existsByPhone(anyString());
+    }
+
+    @Test
+    void possiblePositivesAreConfirmedByDatabase() {
+        when(userRepository.existsByEmail(EMAIL)).thenReturn(true);
+        when(userRepository.existsByPhone(PHONE)).thenReturn(true);
+
+        AvailabilityResponseDto response = availabilityService.checkAvailability(EMAIL, PHONE);
+
+        assertFalse(response.emailAvailable());
+        assertFalse(response.phoneAvailable());
+        verify(userRepository).existsByEmail(EMAIL);
+        verify(userRepository).existsByPhone(PHONE);
+    }
+
+    // The unique constraints compare stored values exactly, so another spelling is a different value
+    @Test
+    void valuesAreMatchedAsStored() {
+        AvailabilityResponseDto response = availabilityService.checkAvailability("john.doe@example.com", null);
+
+        assertTrue(response.emailAvailable());
+        assertNull(response.phoneAvailable());
+        verify(userRepository, never()).existsByEmail(anyString());
+    }
+
+    @Test
+    void changesUpdateTheFilters() {
+        userContactIndex.apply(UserChangedEvent.builder()
+                .userId(2L)
+                .email("second@example.com")
+                .phone("+375292222222")
+                .type(UserChangedEvent.Type.CREATED)
+                .build());
+        userContactIndex.apply(UserChangedEvent.builder()
+                .userId(USER_ID)
+                .email(EMAIL)
+                .phone("+375293333333")
+                .previousPhone(PHONE)
+                .type(UserChangedEvent.Type.UPDATED)
+                .build());
+
+        assertTrue(userContactIndex.mightContainEmail("second@example.com"));
+        assertTrue(userContactIndex.mightContainPhone("+375293333333"));
+        assertFalse(userContactIndex.mightContainPhone(PHONE));
+
+        userContactIndex.apply(UserChangedEvent.builder()
+                .userId(2L)
+                .email("second@example.com")
+                .phone("+375292222222")
+                .type(UserChangedEvent.Type.DELETED)
+                .build());
+
+        assertFalse(userContactIndex.mightContainEmail("second@example.com"));
+        assertFalse(userContactIndex.mightContainPhone("+375292222222"));
+    }
+
+    // The email of a deleted user was registered again before the deletion was redelivered
+    @Test
+    void redeliveredDeletionIsIgnored() {
+        UserChangedEvent deleted = UserChangedEvent.builder()
+                .userId(USER_ID)
+                .email(EMAIL)
+                .phone(PHONE)
+                .type(UserChangedEvent.Type.DELETED)
+                .build();
+
+        userContactIndex.apply(deleted);
+        userContactIndex.apply(UserChangedEvent.builder()
+                .userId(2L)
+                .email(EMAIL)
+                .phone(PHONE)
+                .type(UserChangedEvent.Type.CREATED)
+                .build());
+        userContactIndex.apply(deleted);
+
+        assertTrue(userContactIndex.mightContainEmail(EMAIL));
+        assertTrue(userContactIndex.mightContainPhone(PHONE));
+    }
+
+    // Changes published around the rebuild are delivered after it, whether or not the snapshot already has them
+    @Test
+    void changesTheRebuildAlreadyReflectsAreIgnored() {
+        userContactIndex.apply(UserChangedEvent.builder()
+                .userId(USER_ID)
+                .email(EMAIL)
+                .phone(PHONE)
+                .type(UserChangedEvent.Type.CREATED)
+                .build());
+        userContactIndex.apply(UserChangedEvent.builder()
+                .userId(2L)
+                .email(EMAIL)
+                .phone(PHONE)
+                .type(UserChangedEvent.Type.DELETED)
+                .build());
+        userContactIndex.apply(UserChangedEvent.builder()
+                .userId(USER_ID)
+                .email(EMAIL)
+                .phone(PHONE)
+                .type(UserChangedEvent.Type.DELETED)
+                .build());
+
+        assertFalse(userContactIndex.mightContainEmail(EMAIL));
+        assertFalse(userContactIndex.mightContainPhone(PHONE));
+    }
+
+    // The old phone was registered by someone else before the phone change was redelivered
+    @Test
+    void redeliveredPhoneChangeIsIgnored() {
+        UserChangedEvent updated = UserChangedEvent.builder()
+                .userId(USER_ID)
+                .email(EMAIL)
+                .phone("+375293333333")
+                .previousPhone(PHONE)
+                .type(UserChangedEvent.Type.UPDATED)
+                .build();
+
+        userContactIndex.apply(updated);
+        userContactIndex.apply(UserChangedEvent.builder()
+                .userId(2L)
+                .email("second@example.com")
+                .phone(PHONE)
+                .type(UserChangedEvent.Type.CREATED)
+                .build());
+        userContactIndex.apply(updated);
+
+        assertTrue(userContactIndex.mightContainPhone(PHONE));
+        assertTrue(userContactIndex.mightContainPhone("+375293333333"));
+    }
+
+    @Test
+    void usersBeyondIntIdsAreIndexed() {
+        long userId = Integer.MAX_VALUE + 1L;
+        userContactIndex.index(userId, "second@example.com", "+375292222222");
+        userContactIndex.apply(UserChangedEvent.builder()
+                .userId(userId)
+                .email("second@example.com")
+                .phone("+375292222222")
+                .type(UserChangedEvent.Type.DELETED)
+                .build());
+
+        assertFalse(userContactIndex.mightContainEmail("second@example.com"));
+        assertFalse(userContactIndex.mightContainPhone("+375292222222"));
+    }
+
+    @Test
+    void falsePositiveRateIsReported() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        userContactIndex.bindTo(registry);
+
+        availabilityService.checkAvailability("new@example.com", null);
+        availabilityService.checkAvailability(EMAIL, null);
+
+        assertEquals(0.5, registry.get("users.availability.filter.false.positive.rate").tag("field", "email").gauge().value());
+    }
+
+}
@@ -0,0 +1,134 @@
+package by.aresheg.restaurant.service.impl;
+
+import by.aresheg.restaurant.domain.exception.EmailAlreadyExistsException;
+import by.aresheg.restaurant.domain.exception.PhoneAlreadyExistsException;
+import by.aresheg.restaurant.domain.model.auth.dto.request.RegistrationRequestDto;
+import by.aresheg.restaurant.domain.model.auth.dto.response.RegistrationResponseDto;
+import by.aresheg.restaurant.domain.model.role.Role;
+import by.aresheg.restaurant.mapper.UserMapperImpl;
+import by.aresheg.restaurant.repository.RoleRepository;
+import by.aresheg.restaurant.repository.UserRepository;
+import by.aresheg.restaurant.service.OutboxService;
+import by.aresheg.restaurant.service.RoleRegistry;
+import by.aresheg.restaurant.service.UserContactIndex;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.security.crypto.password.NoOpPasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Registers against a real database whose schema is generated from the entity mapping, so conflicts
+ * are told apart by the constraint names the database reports rather than by a stubbed exception.
+ * The changelog declares the same names for PostgreSQL.
+ */
+@DataJpaTest(properties = {
+        "spring.cloud.config.enabled=false",
+        "spring.datasource.url=jdbc:h2:mem:registration;MODE=PostgreSQL;INIT=CREATE SCHEMA IF NOT EXISTS user_schema",
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RegistrationConstraintTest {
+
+    private static final String EMAIL = "user@example.com";
+
+    private static final String PASSWORD = "P@ssw0rd!";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    private OutboxService outboxService;
+
+    private UserContactIndex userContactIndex;
+
+    private AuthServiceImpl authService;
+
+    @BeforeEach
+    @SuppressWarnings("deprecation")
+    void setUp() {
+        outboxService = mock(OutboxService.class);
+        userContactIndex = mock(UserContactIndex.class);
+        Role userRole = roleRepository.save(Role.builder().name("USER").build());
+        RoleRegistry roleRegistry = mock(RoleRegistry.class);
+        when(roleRegistry.getReference(any())).thenReturn(userRole);
+
+        authService = new AuthServiceImpl(
+                null, userRepository, roleRegistry, null, new UserMapperImpl(), outboxService, NoOpPasswordEncoder.getInstance(), userContactIndex
+        );
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+        roleRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentRegistrationsWithCollidingEmailCreateOneUser() throws Exception {
+        int registrations = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(registrations);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<RegistrationResponseDto>> results = new ArrayList<>();
+        for (int i = 0; i < registrations; i++) {
+            String phone = String.format("+3752912356%02d", i);
+            results.add(executor.submit(() -> {
+                start.await();
+                return authService.register(new RegistrationRequestDto(EMAIL, PASSWORD, "John", phone));
+            }));
+        }
+        start.countDown();
+
+        int created = 0;
+        for (Future<RegistrationResponseDto> result : results) {
+            try {
+                result.get(10, TimeUnit.SECONDS);
+                created++;
+            } catch (ExecutionException ex) {
+                assertInstanceOf(EmailAlreadyExistsException.class, ex.getCause());
+            }
+        }
+        executor.shutdown();
+
+        assertEquals(1, created);
+        assertEquals(1, userRepository.count());
+        verify(outboxService, times(1)).saveUserRegisteredEvent(any());
+        verify(userContactIndex, times(1)).index(any(), eq(EMAIL), any());
+    }
+
+    @Test
+    void takenPhoneIsReportedAsPhoneConflict() {
+        authService.register(new RegistrationRequestDto(EMAIL, PASSWORD, "John", "+375291235600"));
+
+        assertThrows(PhoneAlreadyExistsException.class, () ->
+                authService.register(new RegistrationRequestDto("other@example.com", PASSWORD, "Jane", "+375291235600")));
+    }
+
+}
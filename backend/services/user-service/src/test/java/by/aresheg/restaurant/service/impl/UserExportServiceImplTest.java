@@ -0,0 +1,84 @@
+package by.aresheg.restaurant.service.impl;
+
+import by.aresheg.restaurant.domain.model.auth.dto.response.UserResponseDto;
+import by.aresheg.restaurant.domain.model.user.ExportFormat;
+import by.aresheg.restaurant.domain.model.user.UserStatus;
+import by.aresheg.restaurant.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserExportServiceImplTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    private final UserExportServiceImpl exportService = new UserExportServiceImpl(userRepository, new ObjectMapper());
+
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    @Test
+    void writesOneJsonObjectPerLine() throws Exception {
+        when(userRepository.streamAllForExport()).thenReturn(users());
+
+        String body = export(ExportFormat.NDJSON);
+
+        assertEquals("""
+                {"id":1,"email":"a@example.com","fullName":"Ann","phone":"+375291111111","status":"ACTIVE"}
+                {"id":2,"email":"b@example.com","fullName":"Smith, \\"Bob\\"","phone":"+375292222222","status":"PENDING"}
+                """, body);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void writesQuotedCsv() throws Exception {
+        when(userRepository.streamAllForExport()).thenReturn(users());
+
+        String body = export(ExportFormat.CSV);
+
+        assertEquals("""
+                id,email,fullName,phone,status
+                1,a@example.com,Ann,+375291111111,ACTIVE
+                2,b@example.com,"Smith, ""Bob\""",+375292222222,PENDING
+                """, body);
+        assertTrue(closed.get());
+    }
+
+    @Test
+    void neutralizesFormulasInCsv() throws Exception {
+        when(userRepository.streamAllForExport()).thenReturn(Stream.of(
+                new UserResponseDto(1L, "@SUM(A1)@example.com", "=HYPERLINK(\"http://evil\")", "+375291111111", UserStatus.ACTIVE),
+                new UserResponseDto(2L, "b@example.com", "-2+3+cmd|' /C calc'!A0", "+1 555", UserStatus.PENDING)
+        ));
+
+        String body = export(ExportFormat.CSV);
+
+        assertEquals("""
+                id,email,fullName,phone,status
+                1,'@SUM(A1)@example.com,"'=HYPERLINK(""http://evil"")",+375291111111,ACTIVE
+                2,b@example.com,'-2+3+cmd|' /C calc'!A0,'+1 555,PENDING
+                """, body);
+    }
+
+    private String export(ExportFormat format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private Stream<UserResponseDto> users() {
+        return Stream.of(
+                new UserResponseDto(1L, "a@example.com", "Ann", "+375291111111", UserStatus.ACTIVE),
+                new UserResponseDto(2L, "b@example.com", "Smith, \"Bob\"", "+375292222222", UserStatus.PENDING)
+        ).onClose(() -> closed.set(true));
+    }
+
+}
@@ -0,0 +1,116 @@
+package by.aresheg.restaurant.service.impl;
+
+import by.aresheg.restaurant.config.props.PaginationProperties;
+import by.aresheg.restaurant.config.props.UserBatchProperties;
+import by.aresheg.restaurant.domain.exception.BatchTooLargeException;
+import by.aresheg.restaurant.domain.exception.InvalidCursorException;
+import by.aresheg.restaurant.domain.model.auth.dto.response.UserBatchResponseDto;
+import by.aresheg.restaurant.domain.model.auth.dto.response.UserContactDto;
+import by.aresheg.restaurant.domain.model.auth.dto.response.UserResponseDto;
+import by.aresheg.restaurant.domain.model.user.UserStatus;
+import by.aresheg.restaurant.mapper.UserMapperImpl;
+import by.aresheg.restaurant.repository.UserRepository;
+import by.aresheg.restaurant.service.OutboxService;
+import by.aresheg.restaurant.shared.pagination.CursorPage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class UserServiceImplTest {
+
+    private UserRepository userRepository;
+
+    private UserServiceImpl userService;
+
+    @BeforeEach
+    void setUp() {
+        userRepository = mock(UserRepository.class);
+
+        PaginationProperties paginationProperties = new PaginationProperties();
+        paginationProperties.setDefaultSize(2);
+        paginationProperties.setMaxSize(3);
+
+        UserBatchProperties userBatchProperties = new UserBatchProperties();
+        userBatchProperties.setMaxSize(3);
+
+        userService = new UserServiceImpl(userRepository, new UserMapperImpl(), paginationProperties, userBatchProperties, mock(OutboxService.class));
+    }
+
+    @Test
+    void pagesThroughUsersByKeyset() {
+        when(userRepository.findPageAfter(anyLong(), any(Limit.class)))
+                .thenAnswer(invocation -> users(invocation.getArgument(0), invocation.<Limit>getArgument(1).max(), 5));
+
+        CursorPage<UserResponseDto> first = userService.getUsers(null, null, null);
+        assertEquals(List.of(1L, 2L), ids(first));
+
+        CursorPage<UserResponseDto> second = userService.getUsers(first.nextCursor(), 10, null);
+        assertEquals(List.of(3L, 4L, 5L), ids(second));
+        assertNull(second.nextCursor());
+
+        verify(userRepository).findPageAfter(2L, Limit.of(4));
+    }
+
+    @Test
+    void filtersByStatus() {
+        when(userRepository.findPageAfterWithStatus(eq(0L), eq(UserStatus.ACTIVE), any(Limit.class)))
+                .thenReturn(users(0L, 3, 1));
+
+        CursorPage<UserResponseDto> page = userService.getUsers("", 2, UserStatus.ACTIVE);
+
+        assertEquals(List.of(1L), ids(page));
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void rejectsMalformedCursor() {
+        assertThrows(InvalidCursorException.class, () -> userService.getUsers("not a cursor", null, null));
+    }
+
+    @Test
+    void resolvesBatchInRequestOrderAndReportsMissingIds() {
+        when(userRepository.findContactsByIdIn(any())).thenReturn(List.of(
+                new UserContactDto(1L, "Ann", "+375291111111"),
+                new UserContactDto(3L, "Bob", "+375293333333")
+        ));
+
+        UserBatchResponseDto response = userService.getUsersByIds(List.of(3L, 2L, 1L, 3L));
+
+        assertEquals(List.of(3L, 1L), response.users().stream().map(UserContactDto::id).toList());
+        assertEquals(List.of(2L), response.missingIds());
+        verify(userRepository).findContactsByIdIn(Set.of(3L, 2L, 1L));
+    }
+
+    @Test
+    void rejectsBatchOverLimit() {
+        assertThrows(BatchTooLargeException.class, () -> userService.getUsersByIds(List.of(1L, 2L, 3L, 4L)));
+        verifyNoInteractions(userRepository);
+    }
+
+    private static List<UserResponseDto> users(long afterId, int limit, long total) {
+        return LongStream.rangeClosed(afterId + 1, total)
+                .limit(limit)
+                .mapToObj(id -> new UserResponseDto(id, "user" + id + "@example.com", "User " + id, null, UserStatus.ACTIVE))
+                .toList();
+    }
+
+    private static List<Long> ids(CursorPage<UserResponseDto> page) {
+        return page.items().stream().map(UserResponseDto::id).toList();
+    }
+
+}
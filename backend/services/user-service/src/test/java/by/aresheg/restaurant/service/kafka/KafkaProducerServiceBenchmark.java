@@ -0,0 +1,110 @@
+package by.aresheg.restaurant.service.kafka;
+
+import by.aresheg.restaurant.event.UserRegisteredEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Registration event throughput against an embedded broker, comparing the unkeyed send on default
+ * producer settings with {@link KafkaProducerService} on the profile from user-service.yml.
+ * Run with {@code gradle benchmark}.
+ */
+@Tag("benchmark")
+@EmbeddedKafka(partitions = 3, topics = {KafkaProducerServiceBenchmark.DEFAULT_TOPIC, KafkaProducerServiceBenchmark.TUNED_TOPIC})
+class KafkaProducerServiceBenchmark {
+
+    static final String DEFAULT_TOPIC = "email-notifications-default";
+
+    static final String TUNED_TOPIC = "email-notifications-tuned";
+
+    private static final Logger log = LoggerFactory.getLogger(KafkaProducerServiceBenchmark.class);
+
+    private static final int WARMUP_EVENTS = 2_000;
+
+    private static final int MEASURED_EVENTS = 50_000;
+
+    @Test
+    void throughputWithDefaultAndTunedSettings(EmbeddedKafkaBroker broker) throws Exception {
+        KafkaTemplate<String, Object> defaultTemplate = template(broker, Map.of());
+        KafkaTemplate<String, Object> tunedTemplate = template(broker, Map.of(
+                ProducerConfig.ACKS_CONFIG, "all",
+                ProducerConfig.BATCH_SIZE_CONFIG, 65_536,
+                ProducerConfig.COMPRESSION_TYPE_CONFIG, "lz4",
+                ProducerConfig.LINGER_MS_CONFIG, 10,
+                ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true,
+                ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5
+        ));
+
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        KafkaProducerService producerService = new KafkaProducerService(tunedTemplate, meterRegistry);
+        ReflectionTestUtils.setField(producerService, "kafkaTopic", TUNED_TOPIC);
+
+        try {
+            double defaultRate = eventsPerSecond(event -> defaultTemplate.send(DEFAULT_TOPIC, event).thenApply(result -> null));
+            double tunedRate = eventsPerSecond(producerService::sendUserRegisteredEvent);
+
+            assertEquals(WARMUP_EVENTS + MEASURED_EVENTS, meterRegistry.get("kafka.producer.send")
+                    .tags("topic", TUNED_TOPIC, "result", "success")
+                    .timer()
+                    .count());
+            log.info("Registration events: {} per second with default settings, {} per second tuned",
+                    Math.round(defaultRate), Math.round(tunedRate));
+        } finally {
+            defaultTemplate.destroy();
+            tunedTemplate.destroy();
+        }
+    }
+
+    private static double eventsPerSecond(Function<UserRegisteredEvent, CompletableFuture<Void>> sender) throws Exception {
+        sendAll(sender, WARMUP_EVENTS);
+
+        long startedAt = System.nanoTime();
+        sendAll(sender, MEASURED_EVENTS);
+        long elapsed = System.nanoTime() - startedAt;
+
+        return MEASURED_EVENTS * 1e9 / elapsed;
+    }
+
+    private static void sendAll(Function<UserRegisteredEvent, CompletableFuture<Void>> sender, int events) throws Exception {
+        List<CompletableFuture<Void>> sends = new ArrayList<>(events);
+        for (int i = 0; i < events; i++) {
+            sends.add(sender.apply(UserRegisteredEvent.builder()
+                    .email("user" + i + "@example.com")
+                    .fullName("User " + i)
+                    .verificationToken("token-" + i)
+                    .build()));
+        }
+        CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).get(2, TimeUnit.MINUTES);
+    }
+
+    private static KafkaTemplate<String, Object> template(EmbeddedKafkaBroker broker, Map<String, Object> settings) {
+        Map<String, Object> config = new HashMap<>(settings);
+        config.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, broker.getBrokersAsString());
+        config.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        config.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        config.put(JsonSerializer.ADD_TYPE_INFO_HEADERS, false);
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(config));
+    }
+
+}
@@ -0,0 +1,46 @@
+package by.aresheg.restaurant.service.kafka;
+
+import org.apache.kafka.common.KafkaException;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.config.KafkaListenerContainerFactory;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.support.TopicPartitionOffset;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class UserChangeListenerRegistrarTest {
+
+    private final TopicPartitionFinder topicPartitionFinder = mock(TopicPartitionFinder.class);
+
+    private final KafkaListenerEndpointRegistry kafkaListenerEndpointRegistry = mock(KafkaListenerEndpointRegistry.class);
+
+    private final KafkaListenerContainerFactory<?> kafkaListenerContainerFactory = mock(KafkaListenerContainerFactory.class);
+
+    private final UserChangeListenerRegistrar registrar = new UserChangeListenerRegistrar(
+            mock(UserChangeListener.class), topicPartitionFinder, kafkaListenerEndpointRegistry, kafkaListenerContainerFactory
+    );
+
+    @Test
+    void unreachableBrokerIsRetriedUntilTheListenerIsRegistered() {
+        when(topicPartitionFinder.partitions(any()))
+                .thenThrow(new KafkaException("Failed to obtain topic descriptions"))
+                .thenReturn(new TopicPartitionOffset[]{new TopicPartitionOffset("user-changes", 0)});
+
+        registrar.register();
+
+        verify(kafkaListenerEndpointRegistry, never()).registerListenerContainer(any(), any(), eq(true));
+
+        registrar.register();
+        registrar.register();
+
+        verify(topicPartitionFinder, times(2)).partitions(any());
+        verify(kafkaListenerEndpointRegistry).registerListenerContainer(any(), eq(kafkaListenerContainerFactory), eq(true));
+    }
+
+}
@@ -0,0 +1,58 @@
+package by.aresheg.restaurant.service.kafka;
+
+import by.aresheg.restaurant.event.UserChangedEvent;
+import by.aresheg.restaurant.service.RoleRegistry;
+import by.aresheg.restaurant.service.UserCacheInvalidator;
+import by.aresheg.restaurant.service.UserContactIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+
+import java.util.Map;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class UserChangeListenerTest {
+
+    private final UserCacheInvalidator userCacheInvalidator = mock(UserCacheInvalidator.class);
+
+    private final UserContactIndex userContactIndex = mock(UserContactIndex.class);
+
+    private final RoleRegistry roleRegistry = mock(RoleRegistry.class);
+
+    private final UserChangeListener listener = new UserChangeListener(userCacheInvalidator, userContactIndex, roleRegistry);
+
+    @Test
+    void roleRefreshReloadsTheRegistryOnly() {
+        listener.onUserChanged(UserChangedEvent.builder().type(UserChangedEvent.Type.ROLES_REFRESHED).build());
+
+        verify(roleRegistry).refresh();
+        verify(userCacheInvalidator, never()).evict(any());
+        verify(userContactIndex, never()).apply(any());
+    }
+
+    @Test
+    void updateEvictsTheUserAndUpdatesTheIndex() {
+        UserChangedEvent event = UserChangedEvent.builder()
+                .userId(42L)
+                .email("user@example.com")
+                .type(UserChangedEvent.Type.UPDATED)
+                .build();
+
+        listener.onUserChanged(event);
+
+        verify(userCacheInvalidator).evict(event);
+        verify(userContactIndex).apply(event);
+        verify(roleRegistry, never()).refresh();
+    }
+
+    @Test
+    void assignmentRebuildsTheIndex() {
+        listener.onPartitionsAssigned(Map.of(), mock(ConsumerSeekAware.ConsumerSeekCallback.class));
+
+        verify(userContactIndex).rebuild();
+    }
+
+}
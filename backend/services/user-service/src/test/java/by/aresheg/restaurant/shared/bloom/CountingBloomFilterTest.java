@@ -0,0 +1,66 @@
+package by.aresheg.restaurant.shared.bloom;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CountingBloomFilterTest {
+
+    private static final int VALUES = 100_000;
+
+    @Test
+    void addedValuesAreNeverMissed() {
+        CountingBloomFilter filter = new CountingBloomFilter(VALUES, 0.01);
+        for (int i = 0; i < VALUES; i++) {
+            filter.add("user" + i + "@example.com");
+        }
+
+        for (int i = 0; i < VALUES; i++) {
+            assertTrue(filter.mightContain("user" + i + "@example.com"));
+        }
+    }
+
+    @Test
+    void falsePositiveRateStaysNearTarget() {
+        CountingBloomFilter filter = new CountingBloomFilter(VALUES, 0.01);
+        for (int i = 0; i < VALUES; i++) {
+            filter.add("user" + i + "@example.com");
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < VALUES; i++) {
+            if (filter.mightContain("guest" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+
+        double rate = (double) falsePositives / VALUES;
+        assertTrue(rate < 0.02, "false positive rate " + rate);
+    }
+
+    @Test
+    void removedValueIsGoneWhileOthersStay() {
+        CountingBloomFilter filter = new CountingBloomFilter(1_000, 0.01);
+        filter.add("first@example.com");
+        filter.add("second@example.com");
+
+        filter.remove("first@example.com");
+
+        assertFalse(filter.mightContain("first@example.com"));
+        assertTrue(filter.mightContain("second@example.com"));
+    }
+
+    @Test
+    void removingUnknownValueKeepsExistingOnes() {
+        CountingBloomFilter filter = new CountingBloomFilter(1_000, 0.01);
+        filter.add("first@example.com");
+
+        for (int i = 0; i < 1_000; i++) {
+            filter.remove("unknown" + i + "@example.com");
+        }
+
+        assertTrue(filter.mightContain("first@example.com"));
+    }
+
+}
@@ -0,0 +1,54 @@
+package by.aresheg.restaurant.shared.json;
+
+import by.aresheg.restaurant.config.props.UserBatchProperties;
+import by.aresheg.restaurant.domain.exception.BatchTooLargeException;
+import by.aresheg.restaurant.domain.model.auth.dto.request.UserBatchRequestDto;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.http.converter.json.SpringHandlerInstantiator;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BatchIdsDeserializerTest {
+
+    private final ObjectMapper objectMapper = objectMapper(3);
+
+    @Test
+    void readsIdsUpToTheLimit() throws Exception {
+        UserBatchRequestDto request = objectMapper.readValue("{\"ids\":[1,\"2\",null]}", UserBatchRequestDto.class);
+
+        assertEquals(Arrays.asList(1L, 2L, null), request.ids());
+    }
+
+    @Test
+    void stopsReadingPastTheLimit() {
+        // The body is cut off after the fourth id: anything past the limit is never read
+        JsonMappingException ex = assertThrows(JsonMappingException.class,
+                () -> objectMapper.readValue("{\"ids\":[1,2,3,4,", UserBatchRequestDto.class));
+
+        assertInstanceOf(BatchTooLargeException.class, ex.getCause());
+    }
+
+    @Test
+    void rejectsNonArrays() {
+        assertThrows(JsonMappingException.class, () -> objectMapper.readValue("{\"ids\":1}", UserBatchRequestDto.class));
+    }
+
+    private static ObjectMapper objectMapper(int maxSize) {
+        UserBatchProperties properties = new UserBatchProperties();
+        properties.setMaxSize(maxSize);
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("userBatchProperties", properties);
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.setHandlerInstantiator(new SpringHandlerInstantiator(beanFactory));
+        return objectMapper;
+    }
+
+}